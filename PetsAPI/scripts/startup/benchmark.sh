@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Measures time to the first successful GET /api/pets and idle RSS for the
+# regular jar and for the startup-optimized build.
+# Usage: scripts/startup/benchmark.sh [runs] (after mvn -Pstartup package and cds-archive.sh)
+set -euo pipefail
+
+# The application refuses to start without a JWT secret; a throwaway one is enough here
+export PETS_JWT_SECRET="${PETS_JWT_SECRET:-$(head -c 48 /dev/urandom | base64)}"
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+IDLE_SECONDS="${IDLE_SECONDS:-10}"
+BASE_DIR="$(cd "$(dirname "$0")/../.." && pwd)"
+JAR="$(ls "$BASE_DIR"/target/pets-api-*.jar | grep -v '\.original$' | head -n 1)"
+URL="http://localhost:$PORT/pets-api/api/pets"
+
+measure() {
+    local label="$1"
+    shift
+    local start pid elapsed rss
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label: application exited before serving requests" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    sleep "$IDLE_SECONDS"
+    rss=$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$label $elapsed $rss"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+results=$(mktemp)
+for run in $(seq 1 "$RUNS"); do
+    measure baseline java -jar "$JAR" >> "$results"
+    measure optimized "$BASE_DIR/scripts/startup/run.sh" >> "$results"
+done
+
+printf '%-10s %22s %16s\n' mode first-get-pets-ms idle-rss-mb
+for label in baseline optimized; do
+    printf '%-10s %22s %16s\n' "$label" \
+        "$(awk -v l="$label" '$1 == l {print $2}' "$results" | median)" \
+        "$(awk -v l="$label" '$1 == l {print $3}' "$results" | median)"
+done
+rm -f "$results"
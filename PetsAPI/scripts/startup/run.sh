@@ -0,0 +1,11 @@
+#!/usr/bin/env bash
+# Runs the startup-optimized build (AOT + CDS + lazy initialization).
+# Extra arguments are passed to the application.
+set -euo pipefail
+
+APP_DIR="$(cd "$(dirname "$0")/../.." && pwd)/target/startup"
+
+exec java -XX:SharedArchiveFile="$APP_DIR/application.jsa" \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=startup \
+    -cp "$(cat "$APP_DIR/classpath")" com.pets.api.PetsApiApplication "$@"
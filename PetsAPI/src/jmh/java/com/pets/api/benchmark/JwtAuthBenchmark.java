@@ -0,0 +1,71 @@
+package com.pets.api.benchmark;
+
+import com.pets.api.service.JwtTokenService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication overhead of {@link JwtTokenService}.
+ *
+ * {@code cached} is the steady state of a client reusing its token,
+ * {@code verifyOnly} verifies with the prebuilt parser on every request and
+ * {@code rebuildParser} is the naive filter that builds key and parser per request.
+ * {@code cachedManyOwners} spreads lookups over a working set of tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "pets-api-development-secret-change-me-0123456789";
+
+    @Param({"1000"})
+    private int owners;
+
+    private JwtTokenService tokenService;
+    private String token;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        tokenService = new JwtTokenService(SECRET, 60, 30, 10_000);
+        token = tokenService.issueToken("maria@example.com");
+        tokens = new String[owners];
+        for (int i = 0; i < owners; i++) {
+            tokens[i] = tokenService.issueToken("owner" + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public String cached() {
+        return tokenService.authenticate(token);
+    }
+
+    @Benchmark
+    public String cachedManyOwners() {
+        return tokenService.authenticate(tokens[ThreadLocalRandom.current().nextInt(owners)]);
+    }
+
+    @Benchmark
+    public String verifyOnly() {
+        return tokenService.verify(token);
+    }
+
+    @Benchmark
+    public String rebuildParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+}
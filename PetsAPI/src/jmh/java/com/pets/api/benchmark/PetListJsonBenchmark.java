@@ -0,0 +1,107 @@
+package com.pets.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pets.api.dto.PetDTO;
+import com.pets.api.dto.PetListJson;
+import com.pets.api.model.Pet;
+import com.pets.api.model.PetSpecies;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a pet list response.
+ *
+ * {@code dtoList} is the previous path: every pet copied into a {@link PetDTO}
+ * and the list serialized by Jackson's bean serializer. {@code petListJson}
+ * writes the same fields straight from the entities with {@link PetListJson}.
+ * Both write to a discarding stream; run with {@code -prof gc} to compare the
+ * bytes allocated per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PetListJsonBenchmark {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"20", "200"})
+    private int pets;
+
+    private ObjectMapper objectMapper;
+    private List<Pet> petList;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the application's mapper (ISO dates, Java time module)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        petList = new ArrayList<>(pets);
+        for (int i = 0; i < pets; i++) {
+            Pet pet = new Pet();
+            pet.setId((long) i + 1);
+            pet.setName("Pet " + i);
+            pet.setSpecies(i % 2 == 0 ? PetSpecies.DOG : PetSpecies.CAT);
+            pet.setBreed("Maltés");
+            pet.setBirthDate(LocalDate.of(2020, 1 + i % 12, 1 + i % 28));
+            pet.setWeight(3.5 + i % 10);
+            pet.setColor("Blanco");
+            pet.setMicrochipNumber("9851120" + (10_000_000 + i));
+            pet.setOwnerName("María");
+            pet.setOwnerPhone("+52 55 1234 5678");
+            pet.setOwnerEmail("owner" + (i % 10) + "@example.com");
+            petList.add(pet);
+        }
+    }
+
+    @Benchmark
+    public void dtoList() throws IOException {
+        List<PetDTO> dtos = new ArrayList<>(petList.size());
+        for (Pet pet : petList) {
+            dtos.add(toDTO(pet));
+        }
+        objectMapper.writeValue(DISCARD, dtos);
+    }
+
+    @Benchmark
+    public void petListJson() throws IOException {
+        objectMapper.writeValue(DISCARD, new PetListJson(petList));
+    }
+
+    // The conversion the list endpoints used before PetListJson
+    private static PetDTO toDTO(Pet pet) {
+        PetDTO dto = new PetDTO();
+        dto.setId(pet.getId());
+        dto.setName(pet.getName());
+        dto.setSpecies(pet.getSpecies());
+        dto.setBreed(pet.getBreed());
+        dto.setBirthDate(pet.getBirthDate());
+        dto.setWeight(pet.getWeight());
+        dto.setColor(pet.getColor());
+        dto.setMicrochipNumber(pet.getMicrochipNumber());
+        dto.setPhotoUrl(pet.getPhotoUrl());
+        dto.setOwnerName(pet.getOwnerName());
+        dto.setOwnerPhone(pet.getOwnerPhone());
+        dto.setOwnerEmail(pet.getOwnerEmail());
+        dto.setFollowerCount(pet.getFollowerCount());
+        dto.setAge(pet.getAge());
+        dto.setAgeInMonths(pet.getAgeInMonths());
+        return dto;
+    }
+}
@@ -0,0 +1,192 @@
+package com.pets.api.config;
+
+import com.pets.api.service.AccessLogService;
+import com.pets.api.service.ImageCache;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures each request (endpoint pattern, status, latency, response bytes and
+ * Hibernate statements) and hands it to {@link AccessLogService}. Async requests
+ * such as SSE streams are recorded when they complete.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final AccessLogService accessLogService;
+
+    public AccessLogFilter(AccessLogService accessLogService) {
+        this.accessLogService = accessLogService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        QueryCountInspector.reset();
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(response);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, countingResponse);
+            failed = false;
+        } finally {
+            int queries = QueryCountInspector.getCount();
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, countingResponse, countingResponse.getStatus(), start, queries);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, countingResponse, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                        : countingResponse.getStatus(), start, queries);
+            }
+        }
+    }
+
+    // Helper methods
+    private void record(HttpServletRequest request, CountingResponseWrapper response, int status, long start, int queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        accessLogService.record(request.getMethod(), pattern != null ? pattern.toString() : UNMATCHED, status,
+                System.nanoTime() - start, response.getBytesWritten(), queries);
+    }
+
+    // Counts body bytes; text written through getWriter() is counted per character
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        long getBytesWritten() {
+            return bytesWritten.get();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), bytesWritten);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new CountingWriter(super.getWriter(), bytesWritten));
+            }
+            return writer;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream implements ImageCache.ByteBufferOutput {
+
+        private final ServletOutputStream delegate;
+        private final AtomicLong count;
+
+        CountingOutputStream(ServletOutputStream delegate, AtomicLong count) {
+            this.delegate = delegate;
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count.addAndGet(len);
+        }
+
+        // Lets cached images reach Tomcat's stream without a heap copy
+        @Override
+        public void write(ByteBuffer buffer) throws IOException {
+            int length = buffer.remaining();
+            ImageCache.write(delegate, buffer);
+            count.addAndGet(length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private static class CountingWriter extends Writer {
+
+        private final Writer delegate;
+        private final AtomicLong count;
+
+        CountingWriter(Writer delegate, AtomicLong count) {
+            this.delegate = delegate;
+            this.count = count;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            delegate.write(cbuf, off, len);
+            count.addAndGet(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "pets.access-log")
+public class AccessLogProperties {
+    
+    private boolean enabled = true;
+    
+    // Ring buffer slots; lines are dropped (and counted) when the writer falls this far behind
+    private int bufferSize = 8192;
+    
+    // Fraction of requests logged when no per-endpoint rate applies
+    private double defaultSampleRate = 0.1;
+    
+    // Per-endpoint rates keyed by "METHOD /pattern", e.g. "GET /api/pets/{id}/image"
+    private Map<String, Double> sampleRates = new HashMap<>();
+    
+    // Requests at least this slow, and every 5xx, are always logged
+    private long slowThresholdMs = 500;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+    
+    public double getDefaultSampleRate() {
+        return defaultSampleRate;
+    }
+    
+    public void setDefaultSampleRate(double defaultSampleRate) {
+        this.defaultSampleRate = defaultSampleRate;
+    }
+    
+    public Map<String, Double> getSampleRates() {
+        return sampleRates;
+    }
+    
+    public void setSampleRates(Map<String, Double> sampleRates) {
+        this.sampleRates = sampleRates;
+    }
+    
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+    
+    public void setSlowThresholdMs(long slowThresholdMs) {
+        this.slowThresholdMs = slowThresholdMs;
+    }
+}
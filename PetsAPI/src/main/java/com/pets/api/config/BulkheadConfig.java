@@ -0,0 +1,43 @@
+package com.pets.api.config;
+
+import com.pets.api.service.BulkheadService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    // Right after the access log, so shed requests are logged but cost no authentication work
+    @Bean
+    @ConditionalOnProperty(name = "pets.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(BulkheadService bulkheadService) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(new BulkheadFilter(bulkheadService));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    // Wraps whichever primary datasource is configured (single, read/write routing or sharded)
+    @Bean
+    @ConditionalOnProperty(name = "pets.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor laneDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof LaneDataSource)) {
+                    return new LaneDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.pets.api.config;
+
+import com.pets.api.service.BulkheadService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits each request into its bulkhead lane, or sheds it with 503 and
+ * {@code Retry-After} when the lane and its queue are full. The lane is bound
+ * to the thread for {@link LaneDataSource} and held until the response is
+ * complete, including bodies written asynchronously such as streamed images.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadService bulkheadService;
+
+    public BulkheadFilter(BulkheadService bulkheadService) {
+        this.bulkheadService = bulkheadService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String laneName = classify(request);
+        if (laneName == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        BulkheadService.Lane lane = bulkheadService.lane(laneName);
+        boolean admitted;
+        try {
+            admitted = lane.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(bulkheadService.getRetryAfterSeconds()));
+            return;
+        }
+        LaneContext.setCurrentLane(lane);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            LaneContext.clear();
+            if (async) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        lane.exit();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                lane.exit();
+            }
+        }
+    }
+
+    // Helper methods
+    // Lane of the request, or null for requests outside the bulkheads
+    private static String classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/") || path.startsWith("/api/stream/") || path.startsWith("/api/metrics/")) {
+            // SSE streams are long-lived and bounded separately; metrics must stay reachable under load
+            return null;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            return BulkheadService.UPLOADS;
+        }
+        if ("GET".equals(request.getMethod()) && path.endsWith("/image")) {
+            return BulkheadService.IMAGES;
+        }
+        return BulkheadService.API;
+    }
+}
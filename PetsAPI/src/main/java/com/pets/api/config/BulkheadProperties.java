@@ -0,0 +1,128 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "pets.bulkhead")
+public class BulkheadProperties {
+    
+    private boolean enabled = true;
+    
+    // Sent as Retry-After on requests shed with 503
+    private int retryAfterSeconds = 2;
+    
+    // JSON API requests (everything except images, uploads, SSE streams and metrics)
+    private Lane api = new Lane(120, 30, 0);
+    
+    // GET /api/pets/{id}/image and /api/posts/{id}/image, held until the body is written
+    private Lane images = new Lane(24, 8, 3);
+    
+    // Multipart uploads, held while the request body is read
+    private Lane uploads = new Lane(6, 2, 2);
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public Lane getApi() {
+        return api;
+    }
+    
+    public void setApi(Lane api) {
+        this.api = api;
+    }
+    
+    public Lane getImages() {
+        return images;
+    }
+    
+    public void setImages(Lane images) {
+        this.images = images;
+    }
+    
+    public Lane getUploads() {
+        return uploads;
+    }
+    
+    public void setUploads(Lane uploads) {
+        this.uploads = uploads;
+    }
+    
+    public static class Lane {
+        
+        // Requests of the lane in progress at once
+        private int maxConcurrent;
+        
+        // Requests allowed to wait for a slot; any more are shed immediately
+        private int queueSize;
+        
+        // Longest a queued request waits before it is shed
+        private long queueTimeoutMs = 500;
+        
+        // JDBC connections the lane may hold at once across all pools (0 = no limit)
+        private int maxConnections;
+        
+        // Longest a request of the lane waits for one of its connections
+        private long connectionTimeoutMs = 2000;
+        
+        public Lane() {
+        }
+        
+        public Lane(int maxConcurrent, int queueSize, int maxConnections) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueSize = queueSize;
+            this.maxConnections = maxConnections;
+        }
+        
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+        
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+        
+        public int getQueueSize() {
+            return queueSize;
+        }
+        
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+        
+        public long getQueueTimeoutMs() {
+            return queueTimeoutMs;
+        }
+        
+        public void setQueueTimeoutMs(long queueTimeoutMs) {
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+        
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+        
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+        
+        public long getConnectionTimeoutMs() {
+            return connectionTimeoutMs;
+        }
+        
+        public void setConnectionTimeoutMs(long connectionTimeoutMs) {
+            this.connectionTimeoutMs = connectionTimeoutMs;
+        }
+    }
+}
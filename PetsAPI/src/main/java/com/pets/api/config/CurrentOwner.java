@@ -0,0 +1,27 @@
+package com.pets.api.config;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access checks against the owner authenticated by {@link JwtAuthenticationFilter}.
+ */
+public final class CurrentOwner {
+
+    private CurrentOwner() {
+    }
+
+    public static String getEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public static boolean is(String ownerEmail) {
+        String email = getEmail();
+        return email != null && ownerEmail != null && email.equalsIgnoreCase(ownerEmail.trim());
+    }
+}
@@ -0,0 +1,73 @@
+package com.pets.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares embedded H2 replicas for local runs.
+ *
+ * H2 has no replication, so each replica is a separate database whose tables
+ * are read-only links to the primary's tables, created once Hibernate has
+ * built the schema. Reads routed to a replica therefore go through its own
+ * pool and database while seeing the primary's data with no lag.
+ */
+public class H2ReplicaInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(H2ReplicaInitializer.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final DataSourceProperties primaryProperties;
+
+    public H2ReplicaInitializer(ReplicaRoutingDataSource routingDataSource, DataSourceProperties primaryProperties) {
+        this.routingDataSource = routingDataSource;
+        this.primaryProperties = primaryProperties;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        Map<Object, DataSource> dataSources = routingDataSource.getResolvedDataSources();
+        List<String> tables = new ArrayList<>();
+        try (Connection connection = dataSources.get(ReplicaRoutingDataSource.PRIMARY).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+            while (result.next()) {
+                tables.add(result.getString(1));
+            }
+        }
+
+        String source = "'org.h2.Driver', " + literal(primaryProperties.determineUrl()) + ", "
+                + literal(primaryProperties.determineUsername()) + ", " + literal(primaryProperties.determinePassword());
+        int replicas = 0;
+        for (Map.Entry<Object, DataSource> entry : dataSources.entrySet()) {
+            if (ReplicaRoutingDataSource.PRIMARY.equals(entry.getKey())) {
+                continue;
+            }
+            try (Connection connection = entry.getValue().getConnection();
+                 Statement statement = connection.createStatement()) {
+                for (String table : tables) {
+                    statement.execute("CREATE LINKED TABLE IF NOT EXISTS \"" + table + "\"(" + source
+                            + ", 'PUBLIC', " + literal(table) + ") READONLY");
+                }
+            }
+            replicas++;
+        }
+        log.info("Linked {} tables of the primary into {} H2 replicas", tables.size(), replicas);
+    }
+
+    // Helper methods
+    private static String literal(String value) {
+        return value == null ? "''" : "'" + value.replace("'", "''") + "'";
+    }
+}
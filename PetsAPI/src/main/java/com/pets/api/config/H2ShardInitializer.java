@@ -0,0 +1,78 @@
+package com.pets.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares embedded H2 shards for local runs.
+ *
+ * Hibernate only creates the schema on shard 0 (the default route), so the schema
+ * is copied to the other shards. Every identity column on shard {@code k} of
+ * {@code n} is then set to start at {@code k + 1} and step by {@code n}, so ids
+ * encode their shard. Real databases get the same result from migrations and
+ * auto-increment offset settings.
+ */
+public class H2ShardInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(H2ShardInitializer.class);
+
+    private final List<DataSource> shards;
+
+    public H2ShardInitializer(ShardRoutingDataSource dataSource) {
+        this.shards = dataSource.getShards();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<String> schema = new ArrayList<>();
+        try (Connection connection = shards.get(0).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                String ddl = script.getString(1);
+                if (!ddl.startsWith("--") && !ddl.startsWith("CREATE USER")) {
+                    schema.add(ddl);
+                }
+            }
+        }
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            try (Connection connection = shards.get(shard).getConnection();
+                 Statement statement = connection.createStatement()) {
+                if (shard > 0) {
+                    for (String ddl : schema) {
+                        statement.execute(ddl);
+                    }
+                }
+                offsetIdentities(statement, shard);
+            }
+        }
+        log.info("Initialized {} H2 shards", shards.size());
+    }
+
+    // Helper methods
+    private void offsetIdentities(Statement statement, int shard) throws SQLException {
+        List<String[]> identities = new ArrayList<>();
+        try (ResultSet columns = statement.executeQuery(
+                "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND IS_IDENTITY = 'YES'")) {
+            while (columns.next()) {
+                identities.add(new String[]{columns.getString(1), columns.getString(2)});
+            }
+        }
+        for (String[] identity : identities) {
+            String column = "ALTER TABLE \"" + identity[0] + "\" ALTER COLUMN \"" + identity[1] + "\" ";
+            statement.execute(column + "RESTART WITH " + (shard + 1));
+            statement.execute(column + "SET INCREMENT BY " + shards.size());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.pets.api.config;
+
+import com.pets.api.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Answers retried POSTs that carry an {@code Idempotency-Key} from the
+ * response of the first attempt. The key is scoped to the authenticated owner
+ * and the request is fingerprinted from its method, URI and body: small
+ * bodies (JSON) are hashed here and handed on from memory, while multipart
+ * uploads and larger bodies must send a {@code Content-Digest} so duplicates
+ * are answered before the upload is read or parsed. A retry while the first
+ * attempt is still running gets 409; reusing a key for a different request
+ * gets 422; a store full of requests in progress gets 503.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+    private static final String CONTENT_DIGEST = "Content-Digest";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !path.startsWith("/api/")
+                || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String owner = CurrentOwner.getEmail();
+        if (owner == null) {
+            // Anonymous requests are rejected further down; keys are only tracked per owner
+            chain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        String key = owner.toLowerCase() + '|' + idempotencyKey;
+        String digest = request.getHeader(CONTENT_DIGEST);
+        if (digest == null) {
+            byte[] body = readSmallBody(request);
+            if (body == null) {
+                // Uploads are not buffered to hash them; the client states their digest instead
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            digest = "sha-256=:" + Base64.getEncoder().encodeToString(sha256(body)) + ":";
+            request = new CachedBodyRequest(request, body);
+        }
+        IdempotencyService.Claim claim = idempotencyService.claim(key, fingerprint(request, digest));
+        switch (claim.status()) {
+            case REPLAY -> replay(claim.response(), response);
+            case IN_PROGRESS -> {
+                response.setStatus(HttpServletResponse.SC_CONFLICT);
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            }
+            case MISMATCH -> response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+            case FULL -> {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            }
+            case STARTED -> execute(request, response, chain, key, claim.entry());
+        }
+    }
+
+    // Helper methods
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String key, IdempotencyService.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            // Only successes are kept; after an error the client may retry with the same key
+            if (status >= 200 && status < 300 && !request.isAsyncStarted()) {
+                idempotencyService.complete(key, entry, new IdempotencyService.StoredResponse(status,
+                        wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION),
+                        wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(key, entry);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotencyService.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String fingerprint(HttpServletRequest request, String digest) {
+        StringBuilder fingerprint = new StringBuilder(request.getMethod()).append(' ').append(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            fingerprint.append('?').append(request.getQueryString());
+        }
+        return fingerprint.append(' ').append(request.getContentLengthLong()).append(' ').append(digest).toString();
+    }
+
+    // The whole body if it is not multipart and fits the hashing limit, otherwise null (nothing is consumed then)
+    private byte[] readSmallBody(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        long length = request.getContentLengthLong();
+        int limit = idempotencyService.getMaxHashedBodyBytes();
+        if ((contentType != null && contentType.toLowerCase().startsWith("multipart/")) || length > limit) {
+            return null;
+        }
+        if (length >= 0) {
+            return request.getInputStream().readNBytes((int) length);
+        }
+        // Chunked: only read past the limit to find out it is too large, and that request is refused anyway
+        byte[] body = request.getInputStream().readNBytes(limit + 1);
+        return body.length > limit ? null : body;
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Serves a body that was already read for the fingerprint
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
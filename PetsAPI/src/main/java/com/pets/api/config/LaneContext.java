@@ -0,0 +1,31 @@
+package com.pets.api.config;
+
+import com.pets.api.service.BulkheadService;
+
+/**
+ * Bulkhead lane of the request bound to the current thread. Threads outside a
+ * request (background jobs, async writers) have no lane.
+ */
+public final class LaneContext {
+
+    private static final ThreadLocal<BulkheadService.Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    private LaneContext() {
+    }
+
+    public static BulkheadService.Lane getCurrentLane() {
+        return CURRENT_LANE.get();
+    }
+
+    public static void setCurrentLane(BulkheadService.Lane lane) {
+        if (lane == null) {
+            CURRENT_LANE.remove();
+        } else {
+            CURRENT_LANE.set(lane);
+        }
+    }
+
+    public static void clear() {
+        CURRENT_LANE.remove();
+    }
+}
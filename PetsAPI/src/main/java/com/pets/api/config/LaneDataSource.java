@@ -0,0 +1,95 @@
+package com.pets.api.config;
+
+import com.pets.api.service.BulkheadService;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Partitions the connection pool between bulkhead lanes: a request whose lane
+ * has a connection limit takes one of the lane's permits before borrowing a
+ * connection and gives it back when the connection is closed. Threads without
+ * a lane use the pool directly.
+ */
+public class LaneDataSource extends DelegatingDataSource {
+
+    public LaneDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        BulkheadService.Lane lane = LaneContext.getCurrentLane();
+        if (lane == null || !lane.hasConnectionLimit()) {
+            return super.getConnection();
+        }
+        acquire(lane);
+        try {
+            return releasingOnClose(super.getConnection(), lane);
+        } catch (SQLException | RuntimeException e) {
+            lane.releaseConnection();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        BulkheadService.Lane lane = LaneContext.getCurrentLane();
+        if (lane == null || !lane.hasConnectionLimit()) {
+            return super.getConnection(username, password);
+        }
+        acquire(lane);
+        try {
+            return releasingOnClose(super.getConnection(username, password), lane);
+        } catch (SQLException | RuntimeException e) {
+            lane.releaseConnection();
+            throw e;
+        }
+    }
+
+    // Helper methods
+    private static void acquire(BulkheadService.Lane lane) throws SQLException {
+        boolean acquired;
+        try {
+            acquired = lane.acquireConnection();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection of lane " + lane.getName(), e);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No connection of lane " + lane.getName() + " available");
+        }
+    }
+
+    private static Connection releasingOnClose(Connection connection, BulkheadService.Lane lane) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(LaneDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            lane.releaseConnection();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,25 @@
+package com.pets.api.config;
+
+/**
+ * Owner bound to the current request thread, used for per-owner routing
+ * decisions such as read-your-writes stickiness.
+ */
+public final class OwnerContext {
+
+    private static final ThreadLocal<String> CURRENT_OWNER = new ThreadLocal<>();
+
+    private OwnerContext() {
+    }
+
+    public static String getCurrentOwner() {
+        return CURRENT_OWNER.get();
+    }
+
+    public static void setCurrentOwner(String ownerEmail) {
+        CURRENT_OWNER.set(ownerEmail);
+    }
+
+    public static void clear() {
+        CURRENT_OWNER.remove();
+    }
+}
@@ -0,0 +1,37 @@
+package com.pets.api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the owner sent in the {@code X-Owner-Email} header to {@link OwnerContext}
+ * for the duration of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class OwnerContextFilter extends OncePerRequestFilter {
+
+    public static final String OWNER_HEADER = "X-Owner-Email";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String owner = request.getHeader(OWNER_HEADER);
+        if (owner != null && !owner.isBlank()) {
+            OwnerContext.setCurrentOwner(owner.trim().toLowerCase());
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            OwnerContext.clear();
+        }
+    }
+}
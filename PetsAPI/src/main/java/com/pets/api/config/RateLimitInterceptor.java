@@ -0,0 +1,59 @@
+package com.pets.api.config;
+
+import com.pets.api.service.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control per client and endpoint class. Clients are the
+ * authenticated owner, or the remote address for anonymous reads. Rejected
+ * requests get 429 with {@code Retry-After} and the {@code RateLimit-*} hints.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitService rateLimitService;
+    private final boolean enabled;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService, RateLimitProperties properties) {
+        this.rateLimitService = rateLimitService;
+        this.enabled = properties.isEnabled();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+        String owner = CurrentOwner.getEmail();
+        String clientKey = owner != null ? owner.toLowerCase() : "ip:" + request.getRemoteAddr();
+        String limitClass = rateLimitService.classify(request.getMethod(), pattern.toString());
+        RateLimitService.Rejection rejection = rateLimitService.tryAcquire(limitClass, clientKey);
+        if (rejection == null) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(rejection.retryAfterNanos())));
+        response.setHeader("RateLimit-Limit", String.valueOf(rejection.burst()));
+        response.setHeader("RateLimit-Remaining", "0");
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(rejection.resetNanos())));
+        return false;
+    }
+
+    // Helper methods
+    // Whole seconds, rounded up so that clients never retry too early
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "pets.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Buckets tracked at once; when full, idle (full) buckets are dropped in the
+    // background and new clients meanwhile share one overflow bucket per class
+    private int maxKeys = 1000000;
+    
+    // Budget of the overflow bucket, in clients: it refills at this many times the
+    // class rate and burst; 0 rejects new clients while the map is full
+    private int overflowClients = 100;
+    
+    // Limits per endpoint class, e.g. "read", "write", "scan", "like"
+    private Map<String, Limit> classes = new HashMap<>();
+    
+    // Endpoint class keyed by "METHOD /pattern", e.g. "GET /api/pets"; other
+    // endpoints use "read" for GET and "write" for everything else
+    private Map<String, String> endpoints = new HashMap<>();
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+    
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+    
+    public int getOverflowClients() {
+        return overflowClients;
+    }
+    
+    public void setOverflowClients(int overflowClients) {
+        this.overflowClients = overflowClients;
+    }
+    
+    public Map<String, Limit> getClasses() {
+        return classes;
+    }
+    
+    public void setClasses(Map<String, Limit> classes) {
+        this.classes = classes;
+    }
+    
+    public Map<String, String> getEndpoints() {
+        return endpoints;
+    }
+    
+    public void setEndpoints(Map<String, String> endpoints) {
+        this.endpoints = endpoints;
+    }
+    
+    public static class Limit {
+        
+        // Sustained requests per second per client
+        private double ratePerSecond = 10;
+        
+        // Requests a client may make back to back after being idle
+        private int burst = 20;
+        
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+        
+        public void setRatePerSecond(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+        
+        public int getBurst() {
+            return burst;
+        }
+        
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pets.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write splitting, enabled with {@code pets.datasource.routing.enabled=true}.
+ * The primary is configured with the usual {@code spring.datasource.*} properties
+ * and the replicas with {@code pets.datasource.replicas[n].*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pets.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReadWriteRoutingConfig {
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties routingProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        Map<String, String> lagQueries = new HashMap<>();
+        List<ReplicaRoutingProperties.Replica> configured = routingProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+            String key = "replica-" + i;
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(key);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaxPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(key, dataSource);
+            lagQueries.put(key, replica.getLagQuery());
+        }
+        
+        return new ReplicaRoutingDataSource(primary, replicas, lagQueries,
+                routingProperties.getStickinessMs(), routingProperties.getMaxLagMs(),
+                routingProperties.isAllowUnknownLag());
+    }
+    
+    @Bean
+    @DependsOn("entityManagerFactory")
+    @ConditionalOnProperty(name = "pets.datasource.initialize-h2-replicas", havingValue = "true")
+    public H2ReplicaInitializer h2ReplicaInitializer(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                     DataSourceProperties dataSourceProperties) {
+        return new H2ReplicaInitializer(replicaRoutingDataSource, dataSourceProperties);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,183 @@
+package com.pets.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the
+ * primary.
+ *
+ * After an owner writes, that owner's reads stay on the primary for
+ * {@code stickinessMs} so they see their own writes. Replicas whose measured lag
+ * exceeds {@code maxLagMs} (or that fail the health check) are skipped.
+ * A replica without a lag query has unknown lag, not zero: startup fails
+ * unless {@code allowUnknownLag} is set, and then the stickiness window is the
+ * only bound on what its reads may miss. This must sit behind a {@code LazyConnectionDataSourceProxy} so the read-only flag
+ * is already known when the connection is requested.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private static final long UNKNOWN_LAG = -1;
+
+    private final List<ReplicaState> replicas;
+    private final Map<String, Long> lastWriteByOwner = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final long stickinessMs;
+    private final long maxLagMs;
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    Map<String, String> lagQueries, long stickinessMs, long maxLagMs,
+                                    boolean allowUnknownLag) {
+        this.stickinessMs = stickinessMs;
+        this.maxLagMs = maxLagMs;
+        this.replicas = replicaDataSources.entrySet().stream()
+                .map(entry -> new ReplicaState(entry.getKey(), entry.getValue(), lagQueries.get(entry.getKey())))
+                .toList();
+        for (ReplicaState replica : replicas) {
+            if (replica.lagQuery != null) {
+                continue;
+            }
+            if (!allowUnknownLag || stickinessMs <= 0) {
+                throw new IllegalStateException("Replica " + replica.key + " has no lag-query, so its lag is unknown; "
+                        + "configure one or set pets.datasource.allow-unknown-lag=true with a positive stickiness-ms");
+            }
+            log.warn("Replica {} has no lag query: its lag is unknown and only the {} ms stickiness window bounds stale reads",
+                    replica.key, stickinessMs);
+        }
+
+        Map<Object, Object> targets = new HashMap<>(replicaDataSources);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String owner = OwnerContext.getCurrentOwner();
+
+        if (!inTransaction || !readOnly) {
+            if (inTransaction && owner != null) {
+                lastWriteByOwner.put(owner, System.currentTimeMillis());
+                writes.increment();
+            }
+            return PRIMARY;
+        }
+
+        if (owner != null && isSticky(owner)) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaState replica = replicas.get((start + i) % size);
+            // Unknown lag is accepted only when allowed at startup; owners inside their window were sent to the primary above
+            if (replica.healthy && (replica.lagMs == UNKNOWN_LAG || replica.lagMs <= maxLagMs)) {
+                replicaReads.increment();
+                return replica.key;
+            }
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${pets.datasource.lag-check-ms:5000}")
+    public void checkReplicas() {
+        for (ReplicaState replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (replica.lagQuery == null) {
+                    replica.healthy = connection.isValid(2);
+                } else {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(replica.lagQuery)) {
+                        replica.lagMs = resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+                        replica.healthy = true;
+                    }
+                }
+            } catch (Exception e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} marked unhealthy: {}", replica.key, e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - stickinessMs;
+        lastWriteByOwner.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writes", writes.sum());
+        stats.put("replicaReads", replicaReads.sum());
+        stats.put("primaryReads", primaryReads.sum());
+        stats.put("stickyReads", stickyReads.sum());
+        Map<String, Object> replicaStats = new LinkedHashMap<>();
+        for (ReplicaState replica : replicas) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("healthy", replica.healthy);
+            state.put("lagMs", replica.lagMs == UNKNOWN_LAG ? "unknown" : replica.lagMs);
+            replicaStats.put(replica.key, state);
+        }
+        stats.put("replicas", replicaStats);
+        return stats;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Helper methods
+    private boolean isSticky(String owner) {
+        Long writtenAt = lastWriteByOwner.get(owner);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < stickinessMs;
+    }
+
+    private static class ReplicaState {
+
+        private final String key;
+        private final DataSource dataSource;
+        private final String lagQuery;
+        private volatile boolean healthy = true;
+        private volatile long lagMs;
+
+        ReplicaState(String key, DataSource dataSource, String lagQuery) {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+            this.lagMs = this.lagQuery == null ? UNKNOWN_LAG : 0;
+        }
+    }
+}
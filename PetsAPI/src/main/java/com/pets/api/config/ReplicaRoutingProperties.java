@@ -0,0 +1,115 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "pets.datasource")
+public class ReplicaRoutingProperties {
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    // Reads of an owner go to the primary for this long after that owner wrote
+    private long stickinessMs = 5000;
+    
+    // Replicas lagging more than this are skipped until they catch up
+    private long maxLagMs = 10000;
+    
+    private long lagCheckMs = 5000;
+    
+    // Lets replicas without a lag query serve reads; their lag is then unknown and only stickiness bounds it
+    private boolean allowUnknownLag = false;
+    
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+    
+    public long getStickinessMs() {
+        return stickinessMs;
+    }
+    
+    public void setStickinessMs(long stickinessMs) {
+        this.stickinessMs = stickinessMs;
+    }
+    
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+    
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+    
+    public long getLagCheckMs() {
+        return lagCheckMs;
+    }
+    
+    public void setLagCheckMs(long lagCheckMs) {
+        this.lagCheckMs = lagCheckMs;
+    }
+    
+    public boolean isAllowUnknownLag() {
+        return allowUnknownLag;
+    }
+    
+    public void setAllowUnknownLag(boolean allowUnknownLag) {
+        this.allowUnknownLag = allowUnknownLag;
+    }
+    
+    public static class Replica {
+        
+        private String url;
+        private String username;
+        private String password;
+        
+        // SQL returning the replication lag in milliseconds; required unless allow-unknown-lag is set
+        private String lagQuery;
+        
+        private int maxPoolSize = 10;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public String getLagQuery() {
+            return lagQuery;
+        }
+        
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+        
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+        
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pets.api.config;
+
+import com.pets.api.service.JwtTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Stateless JWT security: reads are public except the per-owner reads under
+ * {@code /owner/{email}}, which need a bearer token like every write; the
+ * controllers check that the token's owner is the owner being read or owns
+ * the pet being changed. The H2 console is only reachable when it is enabled
+ * (dev profile).
+ */
+@Configuration
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtTokenService tokenService,
+                                                   @Value("${spring.h2.console.enabled:false}") boolean h2ConsoleEnabled) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .headers(headers -> headers
+                        .frameOptions(frame -> frame.sameOrigin())
+                        // Written up front instead of on commit, so the response stream is not
+                        // wrapped and cached images keep Tomcat's ByteBuffer write path
+                        .addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+                            @Override
+                            public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                                filter.setShouldWriteHeadersEagerly(true);
+                                return filter;
+                            }
+                        }))
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers(antMatcher(HttpMethod.OPTIONS, "/**")).permitAll()
+                            .requestMatchers(antMatcher(HttpMethod.GET, "/api/*/owner/**")).authenticated()
+                            .requestMatchers(antMatcher(HttpMethod.GET, "/**")).permitAll()
+                            .requestMatchers(antMatcher("/api/auth/**")).permitAll();
+                    if (h2ConsoleEnabled) {
+                        auth.requestMatchers(antMatcher("/h2-console/**")).permitAll();
+                    }
+                    auth.anyRequest().authenticated();
+                })
+                .addFilterBefore(new JwtAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
+    // Replaces Boot's generated in-memory user; authentication is JWT only
+    @Bean
+    public UserDetailsService userDetailsService() {
+        return new InMemoryUserDetailsManager();
+    }
+}
@@ -0,0 +1,28 @@
+package com.pets.api.config;
+
+/**
+ * Shard bound to the current thread. Unbound threads use shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer getCurrentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void setCurrentShard(Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
@@ -0,0 +1,133 @@
+package com.pets.api.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * Owner-keyed shard routing.
+ *
+ * Owners map to a shard by a hash of their email. Every id generated on shard
+ * {@code k} of {@code n} satisfies {@code (id - 1) % n == k}, so a lookup by id
+ * goes straight to its shard. Queries without a shard key run on every shard
+ * and are merged here. With sharding disabled there is a single shard and all
+ * methods simply run the work.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        ShardRoutingDataSource dataSource = shardRoutingDataSource.getIfAvailable();
+        this.shardCount = dataSource == null ? 1 : dataSource.getShards().size();
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForOwner(String ownerEmail) {
+        if (ownerEmail == null) {
+            return 0;
+        }
+        int hash = ownerEmail.trim().toLowerCase().hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    public int shardForId(Long id) {
+        return id == null ? 0 : (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    public Integer getCurrentShard() {
+        return ShardContext.getCurrentShard();
+    }
+
+    public <T> T onShard(Integer shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.getCurrentShard();
+        ShardContext.setCurrentShard(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.setCurrentShard(previous);
+        }
+    }
+
+    public void runOnShard(Integer shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void forEachShard(Runnable work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            runOnShard(shard, work);
+        }
+    }
+
+    // Runs the query on every shard and concatenates the results
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.addAll(onShard(shard, query));
+        }
+        return results;
+    }
+
+    // Runs a sorted query on every shard and k-way merges the results in the same order
+    public <T> List<T> scatterGather(Supplier<List<T>> query, Comparator<T> order, int limit) {
+        if (!isSharded()) {
+            List<T> results = query.get();
+            return results.size() > limit ? results.subList(0, limit) : results;
+        }
+        List<List<T>> perShard = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            perShard.add(onShard(shard, query));
+        }
+
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> order.compare(perShard.get(a[0]).get(a[1]), perShard.get(b[0]).get(b[1])));
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            if (!perShard.get(shard).isEmpty()) {
+                heads.add(new int[]{shard, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> shardResults = perShard.get(head[0]);
+            merged.add(shardResults.get(head[1]));
+            if (head[1] + 1 < shardResults.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    public Map<Integer, List<Long>> groupIdsByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> groups = new LinkedHashMap<>();
+        for (Long id : ids) {
+            groups.computeIfAbsent(shardForId(id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+}
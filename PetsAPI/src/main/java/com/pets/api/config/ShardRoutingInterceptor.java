@@ -0,0 +1,57 @@
+package com.pets.api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds the request to a shard from its path: an {@code {email}} variable routes
+ * by owner, an {@code {id}} or {@code {petId}} variable (or a {@code petId}
+ * parameter) routes by id. Handlers without a shard key bind their own shard or
+ * scatter across all of them.
+ */
+@Component
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!shardRouter.isSharded()) {
+            return true;
+        }
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables != null && variables.containsKey("email")) {
+            ShardContext.setCurrentShard(shardRouter.shardForOwner(variables.get("email")));
+            return true;
+        }
+        String id = variables == null ? null : variables.getOrDefault("id", variables.get("petId"));
+        if (id == null) {
+            id = request.getParameter("petId");
+        }
+        if (id != null) {
+            try {
+                ShardContext.setCurrentShard(shardRouter.shardForId(Long.valueOf(id)));
+            } catch (NumberFormatException e) {
+                // Left unbound; the handler rejects the malformed id
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ShardContext.clear();
+    }
+}
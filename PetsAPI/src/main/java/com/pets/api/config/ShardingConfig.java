@@ -0,0 +1,58 @@
+package com.pets.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owner-keyed sharding, enabled with {@code pets.sharding.enabled=true}. Shards are
+ * configured with {@code pets.sharding.shards[n].*}. This replaces the single
+ * datasource, so it cannot be combined with read/write routing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pets.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaxPoolSize());
+            shards.add(dataSource);
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("pets.sharding.enabled requires at least one pets.sharding.shards entry");
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    // Separate from the routing bean so it can be decorated (see BulkheadConfig) without hiding the shard count
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new DelegatingDataSource(shardRoutingDataSource);
+    }
+    
+    @Bean
+    @DependsOn("entityManagerFactory")
+    @ConditionalOnProperty(name = "pets.sharding.initialize-h2-shards", havingValue = "true", matchIfMissing = true)
+    public H2ShardInitializer h2ShardInitializer(ShardRoutingDataSource dataSource) {
+        return new H2ShardInitializer(dataSource);
+    }
+}
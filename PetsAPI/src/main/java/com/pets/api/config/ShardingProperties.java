@@ -0,0 +1,81 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "pets.sharding")
+public class ShardingProperties {
+    
+    private boolean enabled;
+    
+    private List<Shard> shards = new ArrayList<>();
+    
+    // Copy the schema from shard 0 and set per-shard identity offsets (embedded H2 only)
+    private boolean initializeH2Shards = true;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public List<Shard> getShards() {
+        return shards;
+    }
+    
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+    
+    public boolean isInitializeH2Shards() {
+        return initializeH2Shards;
+    }
+    
+    public void setInitializeH2Shards(boolean initializeH2Shards) {
+        this.initializeH2Shards = initializeH2Shards;
+    }
+    
+    public static class Shard {
+        
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+        
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pets.api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final ShardRoutingInterceptor shardRoutingInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    
+    public WebConfig(ShardRoutingInterceptor shardRoutingInterceptor, RateLimitInterceptor rateLimitInterceptor) {
+        this.shardRoutingInterceptor = shardRoutingInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so rejected requests do no other work; metrics stay reachable
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**").excludePathPatterns("/api/metrics/**");
+        registry.addInterceptor(shardRoutingInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,34 @@
+package com.pets.api.controller;
+
+import com.pets.api.service.JwtTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Development token issuer; in production tokens come from the identity provider sharing the secret
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "pets.security.token-endpoint.enabled", havingValue = "true")
+public class AuthController {
+    
+    @Autowired
+    private JwtTokenService tokenService;
+    
+    // POST issue token for an owner
+    @PostMapping("/token")
+    public ResponseEntity<Map<String, Object>> issueToken(@RequestBody Map<String, String> request) {
+        String ownerEmail = request.get("ownerEmail");
+        if (ownerEmail == null || ownerEmail.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", tokenService.issueToken(ownerEmail));
+        response.put("tokenType", "Bearer");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,215 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.config.ShardRouter;
+import com.pets.api.dto.CalendarEntryDTO;
+import com.pets.api.dto.EventDTO;
+import com.pets.api.model.Event;
+import com.pets.api.model.Pet;
+import com.pets.api.repository.EventRepository;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.service.CalendarService;
+import com.pets.api.service.PetStatsService;
+import com.pets.api.service.WidgetSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private PetRepository petRepository;
+    
+    @Autowired
+    private CalendarService calendarService;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private PetStatsService statsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private WidgetSnapshotService widgetService;
+    
+    // GET events by pet
+    @GetMapping("/pet/{petId}")
+    public ResponseEntity<List<EventDTO>> getEventsByPet(@PathVariable Long petId) {
+        List<EventDTO> events = eventRepository.findByPetIdOrderByDateAsc(petId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(events);
+    }
+    
+    // GET events by owner email
+    @GetMapping("/owner/{email}")
+    public ResponseEntity<List<EventDTO>> getEventsByOwner(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<EventDTO> events = eventRepository.findByOwnerEmailOrderByDateAsc(email).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(events);
+    }
+    
+    // GET calendar entries for an owner within [from, to]
+    @GetMapping("/owner/{email}/calendar")
+    public ResponseEntity<List<CalendarEntryDTO>> getOwnerCalendar(@PathVariable String email,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!calendarService.isValidWindow(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(calendarService.getOwnerCalendar(email, from, to));
+    }
+    
+    // GET calendar entries for a pet within [from, to]
+    @GetMapping("/pet/{petId}/calendar")
+    public ResponseEntity<List<CalendarEntryDTO>> getPetCalendar(@PathVariable Long petId,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!calendarService.isValidWindow(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(calendarService.getPetCalendar(petId, from, to));
+    }
+    
+    // GET event by ID
+    @GetMapping("/{id}")
+    public ResponseEntity<EventDTO> getEventById(@PathVariable Long id) {
+        Optional<Event> event = eventRepository.findById(id);
+        if (event.isPresent()) {
+            return ResponseEntity.ok(convertToDTO(event.get()));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // POST create new event
+    @PostMapping
+    public ResponseEntity<EventDTO> createEvent(@Valid @RequestBody EventDTO eventDTO) {
+        // Events live on the same shard as their pet
+        return shardRouter.onShard(shardRouter.shardForId(eventDTO.getPetId()), () -> {
+            Optional<Pet> petOpt = petRepository.findById(eventDTO.getPetId());
+            if (petOpt.isEmpty()) {
+                return ResponseEntity.notFound().<EventDTO>build();
+            }
+            if (!CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).<EventDTO>build();
+            }
+            Event event = new Event();
+            updateEventFromDTO(event, eventDTO, petOpt.get());
+            Event savedEvent = transactionTemplate.execute(tx -> {
+                Event saved = eventRepository.save(event);
+                statsService.adjust(saved.getPet().getId(), 0, 0, saved.hasUpcomingOccurrence() ? 1 : 0, 0);
+                return saved;
+            });
+            widgetService.invalidate(savedEvent.getPet().getOwnerEmail());
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedEvent));
+        });
+    }
+    
+    // PUT update event
+    @PutMapping("/{id}")
+    public ResponseEntity<EventDTO> updateEvent(@PathVariable Long id,
+                                               @Valid @RequestBody EventDTO eventDTO) {
+        if (shardRouter.shardForId(eventDTO.getPetId()) != shardRouter.shardForId(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Optional<Event> eventOpt = eventRepository.findById(id);
+        Optional<Pet> petOpt = petRepository.findById(eventDTO.getPetId());
+        if (eventOpt.isPresent() && petOpt.isPresent()) {
+            Event event = eventOpt.get();
+            if (!CurrentOwner.is(event.getPet().getOwnerEmail()) || !CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            Long previousPetId = event.getPet().getId();
+            String previousOwnerEmail = event.getPet().getOwnerEmail();
+            boolean wasUpcoming = event.hasUpcomingOccurrence();
+            updateEventFromDTO(event, eventDTO, petOpt.get());
+            Event savedEvent = transactionTemplate.execute(tx -> {
+                Event saved = eventRepository.save(event);
+                statsService.adjust(previousPetId, 0, 0, wasUpcoming ? -1 : 0, 0);
+                statsService.adjust(saved.getPet().getId(), 0, 0, saved.hasUpcomingOccurrence() ? 1 : 0, 0);
+                return saved;
+            });
+            widgetService.invalidate(previousOwnerEmail);
+            widgetService.invalidate(savedEvent.getPet().getOwnerEmail());
+            return ResponseEntity.ok(convertToDTO(savedEvent));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // DELETE event
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {
+        Optional<Event> eventOpt = eventRepository.findById(id);
+        if (eventOpt.isPresent()) {
+            if (!CurrentOwner.is(eventOpt.get().getPet().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                Event event = eventOpt.get();
+                eventRepository.delete(event);
+                statsService.adjust(event.getPet().getId(), 0, 0, event.hasUpcomingOccurrence() ? -1 : 0, 0);
+            });
+            widgetService.invalidate(eventOpt.get().getPet().getOwnerEmail());
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Helper methods
+    private EventDTO convertToDTO(Event event) {
+        EventDTO dto = new EventDTO();
+        dto.setId(event.getId());
+        dto.setTitle(event.getTitle());
+        dto.setDate(event.getDate());
+        dto.setEventType(event.getEventType());
+        dto.setDescription(event.getDescription());
+        dto.setLocation(event.getLocation());
+        dto.setContact(event.getContact());
+        dto.setPetId(event.getPet().getId());
+        dto.setRecurrence(event.getRecurrence());
+        dto.setRecurrenceInterval(event.getRecurrenceInterval());
+        dto.setRecurrenceUntil(event.getRecurrenceUntil());
+        return dto;
+    }
+    
+    private void updateEventFromDTO(Event event, EventDTO dto, Pet pet) {
+        event.setTitle(dto.getTitle());
+        event.setDate(dto.getDate());
+        event.setEventType(dto.getEventType());
+        event.setDescription(dto.getDescription());
+        event.setLocation(dto.getLocation());
+        event.setContact(dto.getContact());
+        event.setPet(pet);
+        event.setRecurrence(dto.getRecurrence());
+        event.setRecurrenceInterval(dto.getRecurrence() != null ? dto.getRecurrenceInterval() : null);
+        event.setRecurrenceUntil(dto.getRecurrence() != null ? dto.getRecurrenceUntil() : null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportController {
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Value("${pets.export.retry-after-seconds:30}")
+    private int retryAfterSeconds;
+    
+    // GET full data of an owner as a ZIP archive (JSON per table plus every image), streamed while it is read
+    // Written on the request thread rather than as an async body: exports may outlast the async request timeout
+    @GetMapping("/owner/{email}")
+    public void exportOwner(@PathVariable String email, HttpServletResponse response) throws IOException {
+        if (!CurrentOwner.is(email)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        if (!exportService.tryStartExport()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return;
+        }
+        try {
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("pets-export-" + LocalDate.now() + ".zip").build().toString());
+            exportService.writeArchive(email.trim(), response.getOutputStream());
+        } finally {
+            exportService.finishExport();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.ReplicaRoutingDataSource;
+import com.pets.api.service.AccessLogService;
+import com.pets.api.service.BulkheadService;
+import com.pets.api.service.ExportService;
+import com.pets.api.service.IdempotencyService;
+import com.pets.api.service.ImageCache;
+import com.pets.api.service.JwtTokenService;
+import com.pets.api.service.MicrochipRegistry;
+import com.pets.api.service.PetPurgeService;
+import com.pets.api.service.PetStatsService;
+import com.pets.api.service.PostEventBroadcaster;
+import com.pets.api.service.PostIngestionService;
+import com.pets.api.service.RateLimitService;
+import com.pets.api.service.ReadCoalescer;
+import com.pets.api.service.TimelineService;
+import com.pets.api.service.TrendingService;
+import com.pets.api.service.VaccinationStatusService;
+import com.pets.api.service.WidgetSnapshotService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+    
+    @Autowired
+    private ReadCoalescer readCoalescer;
+    
+    @Autowired
+    private PostEventBroadcaster broadcaster;
+    
+    @Autowired
+    private PostIngestionService ingestionService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    
+    @Autowired
+    private JwtTokenService tokenService;
+    
+    @Autowired
+    private AccessLogService accessLogService;
+    
+    @Autowired
+    private MicrochipRegistry microchipRegistry;
+    
+    @Autowired
+    private PetPurgeService purgeService;
+    
+    @Autowired
+    private ImageCache imageCache;
+    
+    @Autowired
+    private TrendingService trendingService;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private PetStatsService petStatsService;
+    
+    @Autowired
+    private WidgetSnapshotService widgetService;
+    
+    @Autowired
+    private BulkheadService bulkheadService;
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private VaccinationStatusService vaccinationStatusService;
+    
+    // GET coalescing ratios per read group
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescingMetrics() {
+        return ResponseEntity.ok(readCoalescer.getStats());
+    }
+    
+    // GET push channel metrics
+    @GetMapping("/stream")
+    public ResponseEntity<Map<String, Object>> getStreamMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("subscribers", broadcaster.getSubscriberCount());
+        response.put("droppedEvents", broadcaster.getDroppedEvents());
+        response.put("stalledSubscribers", broadcaster.getStalledSubscribers());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET post ingestion pipeline metrics
+    @GetMapping("/ingestion")
+    public ResponseEntity<Map<String, Object>> getIngestionMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("queued", ingestionService.getQueueDepth());
+        response.put("active", ingestionService.getActiveWorkers());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET read/write routing metrics
+    @GetMapping("/datasource")
+    public ResponseEntity<Map<String, Object>> getDataSourceMetrics() {
+        if (replicaRoutingDataSource == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(replicaRoutingDataSource.getStats());
+    }
+    
+    // GET second-level cache hit ratios per region
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> response = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            response.put(region, regionMetrics(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount()));
+        }
+        response.put("queryCache", regionMetrics(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET verified token cache metrics
+    @GetMapping("/auth")
+    public ResponseEntity<Map<String, Object>> getAuthMetrics() {
+        return ResponseEntity.ok(tokenService.getStats());
+    }
+    
+    // GET access log pipeline metrics
+    @GetMapping("/access-log")
+    public ResponseEntity<Map<String, Object>> getAccessLogMetrics() {
+        return ResponseEntity.ok(accessLogService.getStats());
+    }
+    
+    // GET microchip Bloom filter metrics
+    @GetMapping("/microchip")
+    public ResponseEntity<Map<String, Object>> getMicrochipMetrics() {
+        return ResponseEntity.ok(microchipRegistry.getStats());
+    }
+    
+    // GET background pet purge metrics
+    @GetMapping("/purge")
+    public ResponseEntity<Map<String, Object>> getPurgeMetrics() {
+        return ResponseEntity.ok(purgeService.getStats());
+    }
+    
+    // GET off-heap image cache metrics
+    @GetMapping("/image-cache")
+    public ResponseEntity<Map<String, Object>> getImageCacheMetrics() {
+        return ResponseEntity.ok(imageCache.getStats());
+    }
+    
+    // GET trending ranking metrics
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingMetrics() {
+        return ResponseEntity.ok(trendingService.getStats());
+    }
+    
+    // GET home timeline fan-out metrics
+    @GetMapping("/timeline")
+    public ResponseEntity<Map<String, Object>> getTimelineMetrics() {
+        return ResponseEntity.ok(timelineService.getStats());
+    }
+    
+    // GET pet profile stats maintenance and reconciliation metrics
+    @GetMapping("/pet-stats")
+    public ResponseEntity<Map<String, Object>> getPetStatsMetrics() {
+        return ResponseEntity.ok(petStatsService.getStats());
+    }
+    
+    // GET widget snapshot metrics
+    @GetMapping("/widget")
+    public ResponseEntity<Map<String, Object>> getWidgetMetrics() {
+        return ResponseEntity.ok(widgetService.getStats());
+    }
+    
+    // GET per-lane bulkhead saturation and shed requests
+    @GetMapping("/bulkhead")
+    public ResponseEntity<Map<String, Object>> getBulkheadMetrics() {
+        return ResponseEntity.ok(bulkheadService.getStats());
+    }
+    
+    // GET rate limiter buckets and admitted/rejected requests per endpoint class
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> getRateLimitMetrics() {
+        return ResponseEntity.ok(rateLimitService.getStats());
+    }
+    
+    // GET stored idempotency keys, replayed and rejected retries
+    @GetMapping("/idempotency")
+    public ResponseEntity<Map<String, Object>> getIdempotencyMetrics() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+    
+    // GET active, completed and rejected data exports
+    @GetMapping("/export")
+    public ResponseEntity<Map<String, Object>> getExportMetrics() {
+        return ResponseEntity.ok(exportService.getStats());
+    }
+    
+    // GET vaccinations moved to due soon/overdue by the daily status refresh
+    @GetMapping("/vaccination-status")
+    public ResponseEntity<Map<String, Object>> getVaccinationStatusMetrics() {
+        return ResponseEntity.ok(vaccinationStatusService.getStats());
+    }
+    
+    // Helper methods
+    private Map<String, Object> regionMetrics(long hits, long misses, long puts) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        metrics.put("puts", puts);
+        metrics.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return metrics;
+    }
+}
@@ -1,22 +1,39 @@
 package com.pets.api.controller;
 
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.config.ShardRouter;
 import com.pets.api.dto.PetDTO;
+import com.pets.api.dto.PetListJson;
 import com.pets.api.model.Pet;
 import com.pets.api.model.PetSpecies;
+import com.pets.api.model.PetStats;
 import com.pets.api.repository.PetRepository;
+import com.pets.api.service.ImageCache;
+import com.pets.api.service.MicrochipRegistry;
+import com.pets.api.service.PetFacetService;
+import com.pets.api.service.PetPurgeService;
+import com.pets.api.service.PetStatsService;
+import com.pets.api.service.WidgetSnapshotService;
+import com.pets.api.service.ReadCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/pets")
@@ -26,55 +43,156 @@ public class PetController {
     @Autowired
     private PetRepository petRepository;
     
+    @Autowired
+    private ReadCoalescer readCoalescer;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private PetFacetService facetService;
+    
+    @Autowired
+    private MicrochipRegistry microchipRegistry;
+    
+    @Autowired
+    private PetPurgeService purgeService;
+    
+    @Autowired
+    private ImageCache imageCache;
+    
+    @Autowired
+    private PetStatsService statsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private WidgetSnapshotService widgetService;
+    
+    @Value("${pets.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    @Value("${pets.facets.max-top-breeds:100}")
+    private int maxTopBreeds;
+    
     // GET all pets
     @GetMapping
-    public ResponseEntity<List<PetDTO>> getAllPets() {
-        List<Pet> pets = petRepository.findAll();
-        List<PetDTO> petDTOs = pets.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(petDTOs);
+    public ResponseEntity<PetListJson> getAllPets() {
+        List<Pet> pets = shardRouter.scatter(petRepository::findAll);
+        return ResponseEntity.ok(new PetListJson(pets));
     }
     
     // GET pets by owner email
     @GetMapping("/owner/{email}")
-    public ResponseEntity<List<PetDTO>> getPetsByOwner(@PathVariable String email) {
+    public ResponseEntity<PetListJson> getPetsByOwner(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<Pet> pets = petRepository.findByOwnerEmail(email);
-        List<PetDTO> petDTOs = pets.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(petDTOs);
+        return ResponseEntity.ok(new PetListJson(pets));
+    }
+    
+    // GET pets by IDs (batch)
+    @GetMapping("/batch")
+    public ResponseEntity<PetListJson> getPetsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Pet> pets = new ArrayList<>();
+        shardRouter.groupIdsByShard(ids).forEach((shard, shardIds) -> pets.addAll(shardRouter.onShard(shard,
+                () -> petRepository.findAllById(shardIds))));
+        return ResponseEntity.ok(new PetListJson(pets));
     }
     
     // GET pet by ID
     @GetMapping("/{id}")
     public ResponseEntity<PetDTO> getPetById(@PathVariable Long id) {
-        Optional<Pet> pet = petRepository.findById(id);
+        Optional<PetDTO> pet = readCoalescer.load("pet", id,
+                () -> petRepository.findById(id).map(this::convertToDTO));
         if (pet.isPresent()) {
-            return ResponseEntity.ok(convertToDTO(pet.get()));
+            return ResponseEntity.ok(pet.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
-    // GET pet image
+    // GET pet image (served from the off-heap image cache when possible)
     @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getPetImage(@PathVariable Long id) {
-        Optional<Pet> pet = petRepository.findById(id);
-        if (pet.isPresent() && pet.get().getImageData() != null) {
+    public ResponseEntity<StreamingResponseBody> getPetImage(@PathVariable Long id) {
+        String cacheKey = "pet:" + id;
+        ImageCache.Entry cached = imageCache.get(cacheKey);
+        if (cached != null) {
+            return cachedImage(cached);
+        }
+        // The generation is read by the load itself: a follower joining it must not cache bytes older than its own read
+        Optional<ImageCache.Loaded> image = readCoalescer.load("petImage", id, () -> {
+            long generation = imageCache.generation(cacheKey);
+            return petRepository.findById(id).map(Pet::getImageData).map(data -> new ImageCache.Loaded(data, generation));
+        });
+        if (image.isPresent()) {
+            byte[] imageData = image.get().data();
+            imageCache.put(cacheKey, imageData, image.get().generation());
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
-                    .body(pet.get().getImageData());
+                    .contentLength(imageData.length)
+                    .body(out -> out.write(imageData));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // GET profile stats of a pet (one primary-key read)
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<PetStats> getPetStats(@PathVariable Long id) {
+        Optional<PetStats> stats = statsService.getStats(id);
+        if (stats.isPresent()) {
+            return ResponseEntity.ok(stats.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // GET pet by microchip number (negative lookups never reach the database)
+    @GetMapping("/microchip/{number}")
+    public ResponseEntity<PetDTO> getPetByMicrochip(@PathVariable String number) {
+        String microchipNumber = MicrochipRegistry.normalize(number);
+        if (microchipNumber == null || !microchipRegistry.mightBeRegistered(microchipNumber)) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Pet> pet = findByMicrochip(microchipNumber);
+        if (pet.isPresent()) {
+            return ResponseEntity.ok(convertToDTO(pet.get()));
+        } else {
+            microchipRegistry.recordFalsePositive();
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // POST create new pet
     @PostMapping
     public ResponseEntity<PetDTO> createPet(@Valid @RequestBody PetDTO petDTO) {
+        if (!CurrentOwner.is(petDTO.getOwnerEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         Pet pet = convertToEntity(petDTO);
-        Pet savedPet = petRepository.save(pet);
+        if (isMicrochipTaken(pet.getMicrochipNumber(), null)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Pet savedPet;
+        try {
+            savedPet = shardRouter.onShard(shardRouter.shardForOwner(pet.getOwnerEmail()),
+                    () -> transactionTemplate.execute(tx -> {
+                        Pet created = petRepository.save(pet);
+                        statsService.createFor(created.getId());
+                        return created;
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        facetService.onCreated(savedPet);
+        microchipRegistry.add(savedPet.getMicrochipNumber());
+        widgetService.invalidate(savedPet.getOwnerEmail());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(convertToDTO(savedPet));
     }
@@ -86,9 +204,13 @@ public class PetController {
         Optional<Pet> petOpt = petRepository.findById(id);
         if (petOpt.isPresent()) {
             Pet pet = petOpt.get();
+            if (!CurrentOwner.is(pet.getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
             try {
                 pet.setImageData(image.getBytes());
                 petRepository.save(pet);
+                imageCache.invalidate("pet:" + id);
                 return ResponseEntity.ok("Imagen subida exitosamente");
             } catch (IOException e) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -103,22 +225,57 @@ public class PetController {
     @PutMapping("/{id}")
     public ResponseEntity<PetDTO> updatePet(@PathVariable Long id, 
                                            @Valid @RequestBody PetDTO petDTO) {
+        // Pets cannot move between shards; changing to an owner on another shard is rejected
+        if (shardRouter.shardForOwner(petDTO.getOwnerEmail()) != shardRouter.shardForId(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         Optional<Pet> petOpt = petRepository.findById(id);
         if (petOpt.isPresent()) {
             Pet pet = petOpt.get();
+            if (!CurrentOwner.is(pet.getOwnerEmail()) || !CurrentOwner.is(petDTO.getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            String oldOwnerEmail = pet.getOwnerEmail();
+            PetSpecies oldSpecies = pet.getSpecies();
+            String oldBreed = pet.getBreed();
+            String oldMicrochipNumber = pet.getMicrochipNumber();
             updatePetFromDTO(pet, petDTO);
-            Pet savedPet = petRepository.save(pet);
+            if (isMicrochipTaken(pet.getMicrochipNumber(), id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            Pet savedPet;
+            try {
+                savedPet = petRepository.saveAndFlush(pet);
+            } catch (DataIntegrityViolationException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            facetService.onUpdated(oldOwnerEmail, oldSpecies, oldBreed, savedPet);
+            widgetService.invalidate(oldOwnerEmail);
+            widgetService.invalidate(savedPet.getOwnerEmail());
+            if (!Objects.equals(oldMicrochipNumber, savedPet.getMicrochipNumber())) {
+                microchipRegistry.remove(oldMicrochipNumber);
+                microchipRegistry.add(savedPet.getMicrochipNumber());
+            }
             return ResponseEntity.ok(convertToDTO(savedPet));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
-    // DELETE pet
+    // DELETE pet (soft delete; posts, events and vaccinations are purged in the background)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePet(@PathVariable Long id) {
-        if (petRepository.existsById(id)) {
-            petRepository.deleteById(id);
+        Optional<Pet> petOpt = petRepository.findById(id);
+        if (petOpt.isPresent()) {
+            if (!CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            String microchipNumber = petOpt.get().getMicrochipNumber();
+            purgeService.softDelete(petOpt.get());
+            imageCache.invalidate("pet:" + id);
+            facetService.onDeleted(petOpt.get());
+            microchipRegistry.remove(microchipNumber);
+            widgetService.invalidate(petOpt.get().getOwnerEmail());
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -127,35 +284,75 @@ public class PetController {
     
     // GET pets by species
     @GetMapping("/species/{species}")
-    public ResponseEntity<List<PetDTO>> getPetsBySpecies(@PathVariable PetSpecies species) {
-        List<Pet> pets = petRepository.findBySpecies(species.name());
-        List<PetDTO> petDTOs = pets.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(petDTOs);
+    public ResponseEntity<PetListJson> getPetsBySpecies(@PathVariable PetSpecies species) {
+        List<Pet> pets = shardRouter.scatter(() -> petRepository.findBySpecies(species.name()));
+        return ResponseEntity.ok(new PetListJson(pets));
+    }
+    
+    // GET species and top breed counts
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(@RequestParam(defaultValue = "10") int topBreeds) {
+        if (topBreeds < 0 || topBreeds > maxTopBreeds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facetService.getFacets(null, topBreeds));
+    }
+    
+    // GET species and top breed counts for an owner
+    @GetMapping("/owner/{email}/facets")
+    public ResponseEntity<Map<String, Object>> getOwnerFacets(@PathVariable String email,
+                                                              @RequestParam(defaultValue = "10") int topBreeds) {
+        if (topBreeds < 0 || topBreeds > maxTopBreeds) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(facetService.getFacets(email, topBreeds));
     }
     
     // GET pets by breed (search)
     @GetMapping("/search/breed")
-    public ResponseEntity<List<PetDTO>> searchPetsByBreed(@RequestParam String breed) {
-        List<Pet> pets = petRepository.findByBreedContaining(breed);
-        List<PetDTO> petDTOs = pets.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(petDTOs);
+    public ResponseEntity<PetListJson> searchPetsByBreed(@RequestParam String breed) {
+        List<Pet> pets = shardRouter.scatter(() -> petRepository.findByBreedContaining(breed));
+        return ResponseEntity.ok(new PetListJson(pets));
     }
     
     // GET pets by name (search)
     @GetMapping("/search/name")
-    public ResponseEntity<List<PetDTO>> searchPetsByName(@RequestParam String name) {
-        List<Pet> pets = petRepository.findByNameContaining(name);
-        List<PetDTO> petDTOs = pets.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(petDTOs);
+    public ResponseEntity<PetListJson> searchPetsByName(@RequestParam String name) {
+        List<Pet> pets = shardRouter.scatter(() -> petRepository.findByNameContaining(name));
+        return ResponseEntity.ok(new PetListJson(pets));
     }
     
     // Helper methods
+    // Streams a cached image straight from its off-heap pages, releasing it once written
+    private ResponseEntity<StreamingResponseBody> cachedImage(ImageCache.Entry entry) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(entry.getLength())
+                .body(out -> {
+                    try {
+                        entry.writeTo(out);
+                    } finally {
+                        entry.release();
+                    }
+                });
+    }
+    
+    private Optional<Pet> findByMicrochip(String microchipNumber) {
+        return shardRouter.scatter(() -> petRepository.findByMicrochipNumber(microchipNumber)
+                .map(List::of).orElse(List.of())).stream().findFirst();
+    }
+    
+    // Chip numbers are unique across all shards, not only within the unique index of one
+    private boolean isMicrochipTaken(String microchipNumber, Long petId) {
+        if (microchipNumber == null || !microchipRegistry.mightBeRegistered(microchipNumber)) {
+            return false;
+        }
+        return findByMicrochip(microchipNumber).filter(pet -> !pet.getId().equals(petId)).isPresent();
+    }
+    
     private PetDTO convertToDTO(Pet pet) {
         PetDTO dto = new PetDTO();
         dto.setId(pet.getId());
@@ -170,6 +367,7 @@ public class PetController {
         dto.setOwnerName(pet.getOwnerName());
         dto.setOwnerPhone(pet.getOwnerPhone());
         dto.setOwnerEmail(pet.getOwnerEmail());
+        dto.setFollowerCount(pet.getFollowerCount());
         dto.setAge(pet.getAge());
         dto.setAgeInMonths(pet.getAgeInMonths());
         return dto;
@@ -183,7 +381,7 @@ public class PetController {
         pet.setBirthDate(dto.getBirthDate());
         pet.setWeight(dto.getWeight());
         pet.setColor(dto.getColor());
-        pet.setMicrochipNumber(dto.getMicrochipNumber());
+        pet.setMicrochipNumber(MicrochipRegistry.normalize(dto.getMicrochipNumber()));
         pet.setPhotoUrl(dto.getPhotoUrl());
         pet.setImageData(dto.getImageData());
         pet.setOwnerName(dto.getOwnerName());
@@ -199,7 +397,7 @@ public class PetController {
         pet.setBirthDate(dto.getBirthDate());
         pet.setWeight(dto.getWeight());
         pet.setColor(dto.getColor());
-        pet.setMicrochipNumber(dto.getMicrochipNumber());
+        pet.setMicrochipNumber(MicrochipRegistry.normalize(dto.getMicrochipNumber()));
         pet.setPhotoUrl(dto.getPhotoUrl());
         pet.setOwnerName(dto.getOwnerName());
         pet.setOwnerPhone(dto.getOwnerPhone());
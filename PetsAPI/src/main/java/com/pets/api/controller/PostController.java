@@ -1,23 +1,43 @@
 package com.pets.api.controller;
 
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.config.ShardRouter;
+import com.pets.api.dto.PostDTO;
 import com.pets.api.model.Post;
+import com.pets.api.model.PostStatus;
 import com.pets.api.repository.PostRepository;
 import com.pets.api.repository.PetRepository;
+import com.pets.api.service.ImageCache;
+import com.pets.api.service.PetStatsService;
+import com.pets.api.service.PostEventBroadcaster;
+import com.pets.api.service.PostIngestionService;
+import com.pets.api.service.ReadCoalescer;
+import com.pets.api.service.TrendingService;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -30,21 +50,102 @@ public class PostController {
     @Autowired
     private PetRepository petRepository;
     
+    @Autowired
+    private PostEventBroadcaster broadcaster;
+    
+    @Autowired
+    private ReadCoalescer readCoalescer;
+    
+    @Autowired
+    private PostIngestionService ingestionService;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ImageCache imageCache;
+    
+    @Autowired
+    private TrendingService trendingService;
+    
+    @Autowired
+    private PetStatsService statsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${pets.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    @Value("${pets.ingestion.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+    
     // GET all posts with pagination
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Post> postPage = postRepository.findAllOrderByCreatedAtDesc(pageable);
-        
         Map<String, Object> response = new HashMap<>();
-        response.put("posts", postPage.getContent());
-        response.put("currentPage", postPage.getNumber());
-        response.put("totalItems", postPage.getTotalElements());
-        response.put("totalPages", postPage.getTotalPages());
+        if (!shardRouter.isSharded()) {
+            Pageable pageable = PageRequest.of(page, size);
+            Page<Post> postPage = postRepository.findAllOrderByCreatedAtDesc(pageable);
+            
+            response.put("posts", postPage.getContent());
+            response.put("currentPage", postPage.getNumber());
+            response.put("totalItems", postPage.getTotalElements());
+            response.put("totalPages", postPage.getTotalPages());
+        } else {
+            // Scatter-gather: the first (page + 1) * size posts of every shard, merged by date
+            int limit = (page + 1) * size;
+            long[] totalItems = {0};
+            List<Post> merged = shardRouter.scatterGather(() -> {
+                Page<Post> shardPage = postRepository.findAllOrderByCreatedAtDesc(PageRequest.of(0, limit));
+                totalItems[0] += shardPage.getTotalElements();
+                shardPage.getContent().forEach(post -> Hibernate.initialize(post.getPet()));
+                return shardPage.getContent();
+            }, Comparator.comparing(Post::getCreatedAt).reversed(), limit);
+            
+            response.put("posts", merged.subList(Math.min(page * size, merged.size()), merged.size()));
+            response.put("currentPage", page);
+            response.put("totalItems", totalItems[0]);
+            response.put("totalPages", (int) Math.ceil((double) totalItems[0] / size));
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET trending posts (time-decayed likes and recency), paged with an opaque cursor
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrendingService.TrendingPage page;
+        try {
+            page = trendingService.getPage(cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, PostDTO> summaries = new HashMap<>();
+        List<Long> postIds = page.posts().stream().map(TrendingService.Ranked::postId).toList();
+        shardRouter.groupIdsByShard(postIds).forEach((shard, shardPostIds) ->
+                shardRouter.onShard(shard, () -> postRepository.findSummariesByIds(shardPostIds))
+                        .forEach(summary -> summaries.put(summary.getId(), summary)));
         
+        List<PostDTO> posts = new ArrayList<>();
+        for (TrendingService.Ranked ranked : page.posts()) {
+            PostDTO summary = summaries.get(ranked.postId());
+            if (summary != null) {
+                summary.setLikeCount(ranked.likeCount());
+                posts.add(summary);
+            }
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", posts);
+        response.put("nextCursor", page.nextCursor());
         return ResponseEntity.ok(response);
     }
     
@@ -58,14 +159,20 @@ public class PostController {
     // GET posts by owner email
     @GetMapping("/owner/{email}")
     public ResponseEntity<List<Post>> getPostsByOwner(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<Post> posts = postRepository.findByOwnerEmailOrderByCreatedAtDesc(email);
         return ResponseEntity.ok(posts);
     }
     
     // GET post by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable Long id) {
-        Optional<Post> post = postRepository.findById(id);
+    public ResponseEntity<PostDTO> getPostById(@PathVariable Long id) {
+        // Coalesced reads are handed to several request threads, so they share a projection
+        // built by the query rather than a managed Post with lazy state
+        Optional<PostDTO> post = readCoalescer.load("post", id,
+                () -> postRepository.findSummariesWithLikesByIds(List.of(id)).stream().findFirst());
         if (post.isPresent()) {
             return ResponseEntity.ok(post.get());
         } else {
@@ -75,30 +182,49 @@ public class PostController {
     
     // GET post image
     @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getPostImage(@PathVariable Long id) {
-        Optional<Post> post = postRepository.findById(id);
-        if (post.isPresent() && post.get().getImageData() != null) {
+    public ResponseEntity<StreamingResponseBody> getPostImage(@PathVariable Long id) {
+        String cacheKey = "post:" + id;
+        ImageCache.Entry cached = imageCache.get(cacheKey);
+        if (cached != null) {
+            return cachedImage(cached);
+        }
+        // The generation is read by the load itself: a follower joining it must not cache bytes older than its own read
+        Optional<ImageCache.Loaded> image = readCoalescer.load("postImage", id, () -> {
+            long generation = imageCache.generation(cacheKey);
+            return postRepository.findById(id).map(Post::getImageData).map(data -> new ImageCache.Loaded(data, generation));
+        });
+        if (image.isPresent()) {
+            byte[] imageData = image.get().data();
+            imageCache.put(cacheKey, imageData, image.get().generation());
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
-                    .body(post.get().getImageData());
+                    .contentLength(imageData.length)
+                    .body(out -> out.write(imageData));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
-    // POST create new post
+    // POST create new post (processed asynchronously)
     @PostMapping
-    public ResponseEntity<Post> createPost(@RequestParam("petId") Long petId,
-                                          @RequestParam("image") MultipartFile image) {
+    public ResponseEntity<Map<String, Object>> createPost(@RequestParam("petId") Long petId,
+                                                         @RequestParam("image") MultipartFile image) {
         Optional<com.pets.api.model.Pet> petOpt = petRepository.findById(petId);
         if (petOpt.isPresent()) {
+            if (!CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
             try {
-                Post post = new Post();
-                post.setPet(petOpt.get());
-                post.setImageData(image.getBytes());
+                Post post = ingestionService.submit(petOpt.get(), image);
                 
-                Post savedPost = postRepository.save(post);
-                return ResponseEntity.status(HttpStatus.CREATED).body(savedPost);
+                Map<String, Object> response = new HashMap<>();
+                response.put("id", post.getId());
+                response.put("status", post.getStatus());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            } catch (RejectedExecutionException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                        .build();
             } catch (IOException e) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
@@ -107,15 +233,45 @@ public class PostController {
         }
     }
     
+    // GET post processing status
+    @GetMapping("/{id}/status")
+    public ResponseEntity<Map<String, Object>> getPostStatus(@PathVariable Long id) {
+        Optional<Post> post = postRepository.findById(id);
+        if (post.isPresent()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", id);
+            response.put("status", post.get().getStatus());
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // POST like/unlike post
     @PostMapping("/{id}/like")
     public ResponseEntity<Map<String, Object>> toggleLike(@PathVariable Long id,
                                                          @RequestParam("petId") Long petId) {
+        // Only the owner of the liking pet may like on its behalf; the pet may live on another shard
+        Optional<com.pets.api.model.Pet> likingPet = shardRouter.onShard(shardRouter.shardForId(petId),
+                () -> petRepository.findById(petId));
+        if (likingPet.isEmpty() || !CurrentOwner.is(likingPet.get().getOwnerEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isPresent()) {
-            Post post = postOpt.get();
-            post.toggleLike(petId);
-            Post savedPost = postRepository.save(post);
+            Post savedPost = transactionTemplate.execute(tx -> {
+                Post post = postOpt.get();
+                post.toggleLike(petId);
+                Post saved = postRepository.save(post);
+                if (saved.getStatus() == PostStatus.READY) {
+                    statsService.adjust(saved.getPet().getId(), 0, saved.isLikedBy(petId) ? 1 : -1, 0, 0);
+                }
+                return saved;
+            });
+            trendingService.onLikeChanged(savedPost.getId(), savedPost.getCreatedAt(),
+                    savedPost.getLikeCount(), savedPost.isLikedBy(petId));
+            broadcaster.publishLikeCount(savedPost.getId(), savedPost.getPet().getOwnerEmail(),
+                    savedPost.getLikeCount());
             
             Map<String, Object> response = new HashMap<>();
             response.put("liked", savedPost.isLikedBy(petId));
@@ -130,8 +286,20 @@ public class PostController {
     // DELETE post
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable Long id) {
-        if (postRepository.existsById(id)) {
-            postRepository.deleteById(id);
+        Optional<Post> postOpt = postRepository.findById(id);
+        if (postOpt.isPresent()) {
+            if (!CurrentOwner.is(postOpt.get().getPet().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                Post post = postOpt.get();
+                postRepository.delete(post);
+                if (post.getStatus() == PostStatus.READY) {
+                    statsService.adjust(post.getPet().getId(), -1, -post.getLikeCount(), 0, 0);
+                }
+            });
+            imageCache.invalidate("post:" + id);
+            trendingService.remove(id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -146,4 +314,54 @@ public class PostController {
         response.put("count", count);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+    
+    // GET post counts for several pets (batch)
+    @GetMapping("/pet/counts")
+    public ResponseEntity<Map<Long, Long>> getPostCountsByPets(@RequestParam List<Long> petIds) {
+        if (petIds.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, Long> response = new HashMap<>();
+        for (Long petId : petIds) {
+            response.put(petId, 0L);
+        }
+        shardRouter.groupIdsByShard(petIds).forEach((shard, shardPetIds) -> {
+            for (Object[] row : shardRouter.onShard(shard, () -> postRepository.countByPetIds(shardPetIds))) {
+                response.put((Long) row[0], (Long) row[1]);
+            }
+        });
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET like state of one pet across several posts (batch)
+    @GetMapping("/likes")
+    public ResponseEntity<Map<Long, Boolean>> getLikeStates(@RequestParam("petId") Long petId,
+                                                          @RequestParam List<Long> postIds) {
+        if (postIds.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<Long> liked = new HashSet<>();
+        shardRouter.groupIdsByShard(postIds).forEach((shard, shardPostIds) ->
+                liked.addAll(shardRouter.onShard(shard, () -> postRepository.findPostIdsLikedByPet(petId, shardPostIds))));
+        Map<Long, Boolean> response = new HashMap<>();
+        for (Long postId : postIds) {
+            response.put(postId, liked.contains(postId));
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    // Helper methods
+    // Streams a cached image straight from its off-heap pages, releasing it once written
+    private ResponseEntity<StreamingResponseBody> cachedImage(ImageCache.Entry entry) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(entry.getLength())
+                .body(out -> {
+                    try {
+                        entry.writeTo(out);
+                    } finally {
+                        entry.release();
+                    }
+                });
+    }
+}
@@ -0,0 +1,38 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.service.PostEventBroadcaster;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class StreamController {
+    
+    @Autowired
+    private PostEventBroadcaster broadcaster;
+    
+    // GET like counts and new posts for every pet of an owner
+    @GetMapping(path = "/owner/{email}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamOwner(@PathVariable String email, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!CurrentOwner.is(email)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        broadcaster.subscribeToOwner(email, request, response);
+    }
+    
+    // GET like counts for a single post
+    @GetMapping(path = "/posts/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamPost(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        broadcaster.subscribeToPost(id, request, response);
+    }
+}
@@ -0,0 +1,111 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.Follow;
+import com.pets.api.model.Pet;
+import com.pets.api.repository.FollowRepository;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.service.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/timeline")
+@CrossOrigin(origins = "*")
+public class TimelineController {
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    @Autowired
+    private PetRepository petRepository;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Value("${pets.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    // GET home timeline of an owner (posts of the pets they follow), paged with an opaque cursor
+    @GetMapping("/owner/{email}")
+    public ResponseEntity<Map<String, Object>> getTimeline(@PathVariable String email,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (size < 1 || size > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        TimelineService.TimelinePage page;
+        try {
+            page = timelineService.getTimeline(email, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", page.posts());
+        response.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET ids of the pets an owner follows
+    @GetMapping("/owner/{email}/following")
+    public ResponseEntity<List<Long>> getFollowing(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(followRepository.findPetIdsByFollowerEmail(TimelineService.normalizeOwner(email)));
+    }
+    
+    // POST follow a pet
+    @PostMapping("/owner/{email}/follow/{petId}")
+    public ResponseEntity<Void> follow(@PathVariable String email, @PathVariable Long petId) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        // The pet may live on another shard than the follower
+        Optional<Pet> pet = shardRouter.onShard(shardRouter.shardForId(petId), () -> petRepository.findById(petId));
+        if (pet.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String follower = TimelineService.normalizeOwner(email);
+        if (followRepository.existsByFollowerEmailAndPetId(follower, petId)) {
+            return ResponseEntity.ok().build();
+        }
+        try {
+            followRepository.save(new Follow(follower, petId));
+        } catch (DataIntegrityViolationException e) {
+            // Followed concurrently
+            return ResponseEntity.ok().build();
+        }
+        timelineService.adjustFollowerCount(petId, 1);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+    
+    // DELETE unfollow a pet
+    @DeleteMapping("/owner/{email}/follow/{petId}")
+    public ResponseEntity<Void> unfollow(@PathVariable String email, @PathVariable Long petId) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (followRepository.deleteByFollowerEmailAndPetId(TimelineService.normalizeOwner(email), petId) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        timelineService.adjustFollowerCount(petId, -1);
+        return ResponseEntity.noContent().build();
+    }
+}
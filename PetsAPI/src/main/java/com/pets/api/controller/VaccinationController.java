@@ -0,0 +1,182 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.config.ShardRouter;
+import com.pets.api.dto.VaccinationDTO;
+import com.pets.api.model.Pet;
+import com.pets.api.model.Vaccination;
+import com.pets.api.model.VaccinationStatus;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.repository.VaccinationRepository;
+import com.pets.api.service.PetStatsService;
+import com.pets.api.service.WidgetSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/vaccinations")
+@CrossOrigin(origins = "*")
+public class VaccinationController {
+    
+    @Autowired
+    private VaccinationRepository vaccinationRepository;
+    
+    @Autowired
+    private PetRepository petRepository;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private PetStatsService statsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private WidgetSnapshotService widgetService;
+    
+    // GET vaccinations by pet
+    @GetMapping("/pet/{petId}")
+    public ResponseEntity<List<VaccinationDTO>> getVaccinationsByPet(@PathVariable Long petId) {
+        List<VaccinationDTO> vaccinations = vaccinationRepository.findByPetIdOrderByNextDueDateAsc(petId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(vaccinations);
+    }
+    
+    // GET overdue vaccinations of an owner (equality lookup on the persisted status)
+    @GetMapping("/owner/{email}/overdue")
+    public ResponseEntity<List<VaccinationDTO>> getOverdueVaccinationsByOwner(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(findByOwnerAndStatus(email, VaccinationStatus.OVERDUE));
+    }
+    
+    // GET vaccinations of an owner due within the next 30 days
+    @GetMapping("/owner/{email}/due-soon")
+    public ResponseEntity<List<VaccinationDTO>> getDueSoonVaccinationsByOwner(@PathVariable String email) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(findByOwnerAndStatus(email, VaccinationStatus.DUE_SOON));
+    }
+    
+    // POST create new vaccination
+    @PostMapping
+    public ResponseEntity<VaccinationDTO> createVaccination(@Valid @RequestBody VaccinationDTO vaccinationDTO) {
+        // Vaccinations live on the same shard as their pet
+        return shardRouter.onShard(shardRouter.shardForId(vaccinationDTO.getPetId()), () -> {
+            Optional<Pet> petOpt = petRepository.findById(vaccinationDTO.getPetId());
+            if (petOpt.isEmpty()) {
+                return ResponseEntity.notFound().<VaccinationDTO>build();
+            }
+            if (!CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).<VaccinationDTO>build();
+            }
+            Vaccination vaccination = new Vaccination();
+            updateVaccinationFromDTO(vaccination, vaccinationDTO, petOpt.get());
+            Vaccination savedVaccination = transactionTemplate.execute(tx -> {
+                Vaccination saved = vaccinationRepository.save(vaccination);
+                statsService.adjust(saved.getPet().getId(), 0, 0, 0, saved.isOverdue() ? 1 : 0);
+                return saved;
+            });
+            widgetService.invalidate(savedVaccination.getPet().getOwnerEmail());
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedVaccination));
+        });
+    }
+    
+    // PUT update vaccination
+    @PutMapping("/{id}")
+    public ResponseEntity<VaccinationDTO> updateVaccination(@PathVariable Long id,
+                                                           @Valid @RequestBody VaccinationDTO vaccinationDTO) {
+        if (shardRouter.shardForId(vaccinationDTO.getPetId()) != shardRouter.shardForId(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Optional<Vaccination> vaccinationOpt = vaccinationRepository.findById(id);
+        Optional<Pet> petOpt = petRepository.findById(vaccinationDTO.getPetId());
+        if (vaccinationOpt.isPresent() && petOpt.isPresent()) {
+            Vaccination vaccination = vaccinationOpt.get();
+            if (!CurrentOwner.is(vaccination.getPet().getOwnerEmail()) || !CurrentOwner.is(petOpt.get().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            Long previousPetId = vaccination.getPet().getId();
+            String previousOwnerEmail = vaccination.getPet().getOwnerEmail();
+            boolean wasOverdue = vaccination.isOverdue();
+            updateVaccinationFromDTO(vaccination, vaccinationDTO, petOpt.get());
+            Vaccination savedVaccination = transactionTemplate.execute(tx -> {
+                Vaccination saved = vaccinationRepository.save(vaccination);
+                statsService.adjust(previousPetId, 0, 0, 0, wasOverdue ? -1 : 0);
+                statsService.adjust(saved.getPet().getId(), 0, 0, 0, saved.isOverdue() ? 1 : 0);
+                return saved;
+            });
+            widgetService.invalidate(previousOwnerEmail);
+            widgetService.invalidate(savedVaccination.getPet().getOwnerEmail());
+            return ResponseEntity.ok(convertToDTO(savedVaccination));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // DELETE vaccination
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteVaccination(@PathVariable Long id) {
+        Optional<Vaccination> vaccinationOpt = vaccinationRepository.findById(id);
+        if (vaccinationOpt.isPresent()) {
+            if (!CurrentOwner.is(vaccinationOpt.get().getPet().getOwnerEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                Vaccination vaccination = vaccinationOpt.get();
+                vaccinationRepository.delete(vaccination);
+                statsService.adjust(vaccination.getPet().getId(), 0, 0, 0, vaccination.isOverdue() ? -1 : 0);
+            });
+            widgetService.invalidate(vaccinationOpt.get().getPet().getOwnerEmail());
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Helper methods
+    private List<VaccinationDTO> findByOwnerAndStatus(String ownerEmail, VaccinationStatus status) {
+        return vaccinationRepository.findByOwnerEmailAndStatus(ownerEmail, status).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    private VaccinationDTO convertToDTO(Vaccination vaccination) {
+        VaccinationDTO dto = new VaccinationDTO();
+        dto.setId(vaccination.getId());
+        dto.setName(vaccination.getName());
+        dto.setDate(vaccination.getDate());
+        dto.setNextDueDate(vaccination.getNextDueDate());
+        dto.setVeterinarian(vaccination.getVeterinarian());
+        dto.setClinic(vaccination.getClinic());
+        dto.setNotes(vaccination.getNotes());
+        dto.setPetId(vaccination.getPet().getId());
+        dto.setOverdue(vaccination.isOverdue());
+        dto.setStatus(vaccination.getStatus());
+        dto.setStatusSince(vaccination.getStatusSince());
+        return dto;
+    }
+    
+    private void updateVaccinationFromDTO(Vaccination vaccination, VaccinationDTO dto, Pet pet) {
+        vaccination.setName(dto.getName());
+        vaccination.setDate(dto.getDate());
+        vaccination.setNextDueDate(dto.getNextDueDate());
+        vaccination.setVeterinarian(dto.getVeterinarian());
+        vaccination.setClinic(dto.getClinic());
+        vaccination.setNotes(dto.getNotes());
+        vaccination.setPet(pet);
+    }
+}
@@ -0,0 +1,41 @@
+package com.pets.api.controller;
+
+import com.pets.api.config.CurrentOwner;
+import com.pets.api.service.WidgetSnapshotService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/widget")
+@CrossOrigin(origins = "*")
+public class WidgetController {
+    
+    @Autowired
+    private WidgetSnapshotService widgetService;
+    
+    // GET compact widget payload of an owner (name, icon and next due item per pet), revalidated with If-None-Match
+    @GetMapping("/owner/{email}")
+    public ResponseEntity<byte[]> getOwnerWidget(@PathVariable String email,
+                                                 WebRequest request,
+                                                 HttpServletResponse response) {
+        if (!CurrentOwner.is(email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        WidgetSnapshotService.Snapshot snapshot = widgetService.getSnapshot(email);
+        // Replaces Spring Security's no-store default: clients may keep the payload but must revalidate it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (request.checkNotModified(snapshot.etag())) {
+            widgetService.recordNotModified();
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
+    }
+}
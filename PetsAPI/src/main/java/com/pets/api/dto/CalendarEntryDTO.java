@@ -0,0 +1,105 @@
+package com.pets.api.dto;
+
+import com.pets.api.model.EventType;
+import java.time.LocalDate;
+
+public class CalendarEntryDTO {
+    
+    public static final String TYPE_EVENT = "EVENT";
+    public static final String TYPE_VACCINATION = "VACCINATION";
+    
+    private String type;
+    private Long sourceId;
+    private Long petId;
+    private String petName;
+    private String title;
+    private LocalDate date;
+    private EventType eventType;
+    private boolean recurring;
+    
+    // Constructors
+    public CalendarEntryDTO() {}
+    
+    public CalendarEntryDTO(String type, Long sourceId, Long petId, String petName, String title, LocalDate date) {
+        this.type = type;
+        this.sourceId = sourceId;
+        this.petId = petId;
+        this.petName = petName;
+        this.title = title;
+        this.date = date;
+    }
+    
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getSourceId() {
+        return sourceId;
+    }
+    
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+    
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public String getPetName() {
+        return petName;
+    }
+    
+    public void setPetName(String petName) {
+        this.petName = petName;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public EventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public boolean isRecurring() {
+        return recurring;
+    }
+    
+    public void setRecurring(boolean recurring) {
+        this.recurring = recurring;
+    }
+    
+    // Calculated fields
+    public String getIcon() {
+        return eventType != null ? eventType.getIcon() : "syringe";
+    }
+    
+    public String getColor() {
+        return eventType != null ? eventType.getColor() : "orange";
+    }
+}
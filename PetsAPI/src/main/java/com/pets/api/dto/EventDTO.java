@@ -0,0 +1,132 @@
+package com.pets.api.dto;
+
+import com.pets.api.model.EventType;
+import com.pets.api.model.RecurrenceFrequency;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+public class EventDTO {
+    
+    private Long id;
+    
+    @NotBlank(message = "El título es obligatorio")
+    @Size(max = 200, message = "El título no puede tener más de 200 caracteres")
+    private String title;
+    
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDate date;
+    
+    @NotNull(message = "El tipo de evento es obligatorio")
+    private EventType eventType;
+    
+    @Size(max = 500, message = "La descripción no puede tener más de 500 caracteres")
+    private String description;
+    
+    @Size(max = 200, message = "La ubicación no puede tener más de 200 caracteres")
+    private String location;
+    
+    @Size(max = 100, message = "El contacto no puede tener más de 100 caracteres")
+    private String contact;
+    
+    @NotNull(message = "La mascota es obligatoria")
+    private Long petId;
+    
+    private RecurrenceFrequency recurrence;
+    
+    @Min(value = 1, message = "El intervalo de repetición debe ser al menos 1")
+    private Integer recurrenceInterval;
+    
+    private LocalDate recurrenceUntil;
+    
+    // Constructors
+    public EventDTO() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public EventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public String getContact() {
+        return contact;
+    }
+    
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+    
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public RecurrenceFrequency getRecurrence() {
+        return recurrence;
+    }
+    
+    public void setRecurrence(RecurrenceFrequency recurrence) {
+        this.recurrence = recurrence;
+    }
+    
+    public Integer getRecurrenceInterval() {
+        return recurrenceInterval;
+    }
+    
+    public void setRecurrenceInterval(Integer recurrenceInterval) {
+        this.recurrenceInterval = recurrenceInterval;
+    }
+    
+    public LocalDate getRecurrenceUntil() {
+        return recurrenceUntil;
+    }
+    
+    public void setRecurrenceUntil(LocalDate recurrenceUntil) {
+        this.recurrenceUntil = recurrenceUntil;
+    }
+}
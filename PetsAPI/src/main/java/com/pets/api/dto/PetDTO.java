@@ -51,6 +51,9 @@ public class PetDTO {
     @Size(max = 100, message = "El email no puede tener más de 100 caracteres")
     private String ownerEmail;
     
+    // Read-only; maintained by the follow endpoints
+    private Integer followerCount;
+    
     // Calculated fields
     private Integer age;
     private Integer ageInMonths;
@@ -177,6 +180,14 @@ public class PetDTO {
         this.ownerEmail = ownerEmail;
     }
     
+    public Integer getFollowerCount() {
+        return followerCount;
+    }
+    
+    public void setFollowerCount(Integer followerCount) {
+        this.followerCount = followerCount;
+    }
+    
     public Integer getAge() {
         return age;
     }
@@ -0,0 +1,114 @@
+package com.pets.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.pets.api.model.Pet;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Body of the pet list endpoints. The pets are written straight from the
+ * entities to the response's {@link JsonGenerator}, with the same fields and
+ * order as {@link PetDTO}, instead of being copied into a list of DTOs that
+ * Jackson then reflects over. The calculated ages use one "today" for the
+ * whole list.
+ */
+@JsonSerialize(using = PetListJson.Serializer.class)
+public class PetListJson {
+    
+    private final Collection<Pet> pets;
+    private final LocalDate today;
+    
+    public PetListJson(Collection<Pet> pets) {
+        this.pets = pets;
+        this.today = LocalDate.now();
+    }
+    
+    public Collection<Pet> getPets() {
+        return pets;
+    }
+    
+    static final class Serializer extends StdSerializer<PetListJson> {
+        
+        // Field names are quoted and encoded once
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString SPECIES = new SerializedString("species");
+        private static final SerializableString BREED = new SerializedString("breed");
+        private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+        private static final SerializableString WEIGHT = new SerializedString("weight");
+        private static final SerializableString COLOR = new SerializedString("color");
+        private static final SerializableString MICROCHIP_NUMBER = new SerializedString("microchipNumber");
+        private static final SerializableString PHOTO_URL = new SerializedString("photoUrl");
+        private static final SerializableString IMAGE_DATA = new SerializedString("imageData");
+        private static final SerializableString OWNER_NAME = new SerializedString("ownerName");
+        private static final SerializableString OWNER_PHONE = new SerializedString("ownerPhone");
+        private static final SerializableString OWNER_EMAIL = new SerializedString("ownerEmail");
+        private static final SerializableString FOLLOWER_COUNT = new SerializedString("followerCount");
+        private static final SerializableString AGE = new SerializedString("age");
+        private static final SerializableString AGE_IN_MONTHS = new SerializedString("ageInMonths");
+        
+        Serializer() {
+            super(PetListJson.class);
+        }
+        
+        @Override
+        public void serialize(PetListJson value, JsonGenerator json, SerializerProvider provider) throws IOException {
+            json.writeStartArray();
+            for (Pet pet : value.pets) {
+                writePet(json, pet, value.today);
+            }
+            json.writeEndArray();
+        }
+        
+        // Image data is never part of a list
+        private static void writePet(JsonGenerator json, Pet pet, LocalDate today) throws IOException {
+            json.writeStartObject();
+            json.writeFieldName(ID);
+            if (pet.getId() == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(pet.getId());
+            }
+            writeString(json, NAME, pet.getName());
+            writeString(json, SPECIES, pet.getSpecies() == null ? null : pet.getSpecies().name());
+            writeString(json, BREED, pet.getBreed());
+            writeString(json, BIRTH_DATE, pet.getBirthDate() == null ? null : pet.getBirthDate().toString());
+            json.writeFieldName(WEIGHT);
+            if (pet.getWeight() == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(pet.getWeight());
+            }
+            writeString(json, COLOR, pet.getColor());
+            writeString(json, MICROCHIP_NUMBER, pet.getMicrochipNumber());
+            writeString(json, PHOTO_URL, pet.getPhotoUrl());
+            json.writeFieldName(IMAGE_DATA);
+            json.writeNull();
+            writeString(json, OWNER_NAME, pet.getOwnerName());
+            writeString(json, OWNER_PHONE, pet.getOwnerPhone());
+            writeString(json, OWNER_EMAIL, pet.getOwnerEmail());
+            json.writeFieldName(FOLLOWER_COUNT);
+            json.writeNumber(pet.getFollowerCount());
+            json.writeFieldName(AGE);
+            json.writeNumber(pet.getAge(today));
+            json.writeFieldName(AGE_IN_MONTHS);
+            json.writeNumber(pet.getAgeInMonths(today));
+            json.writeEndObject();
+        }
+        
+        private static void writeString(JsonGenerator json, SerializableString field, String value) throws IOException {
+            json.writeFieldName(field);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeString(value);
+            }
+        }
+    }
+}
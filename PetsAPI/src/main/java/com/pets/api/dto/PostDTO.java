@@ -0,0 +1,68 @@
+package com.pets.api.dto;
+
+import java.time.LocalDateTime;
+
+public class PostDTO {
+
+    private Long id;
+    private Long petId;
+    private String petName;
+    private LocalDateTime createdAt;
+    private int likeCount;
+
+    // Constructors
+    public PostDTO() {}
+
+    public PostDTO(Long id, Long petId, String petName, LocalDateTime createdAt) {
+        this.id = id;
+        this.petId = petId;
+        this.petName = petName;
+        this.createdAt = createdAt;
+    }
+
+    public PostDTO(Long id, Long petId, String petName, LocalDateTime createdAt, int likeCount) {
+        this(id, petId, petName, createdAt);
+        this.likeCount = likeCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+
+    public String getPetName() {
+        return petName;
+    }
+
+    public void setPetName(String petName) {
+        this.petName = petName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pets.api.dto;
+
+import com.pets.api.model.VaccinationStatus;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+public class VaccinationDTO {
+    
+    private Long id;
+    
+    @NotBlank(message = "El nombre de la vacuna es obligatorio")
+    @Size(max = 100, message = "El nombre no puede tener más de 100 caracteres")
+    private String name;
+    
+    @NotNull(message = "La fecha de vacunación es obligatoria")
+    private LocalDate date;
+    
+    @NotNull(message = "La fecha de próxima dosis es obligatoria")
+    private LocalDate nextDueDate;
+    
+    @Size(max = 100, message = "El veterinario no puede tener más de 100 caracteres")
+    private String veterinarian;
+    
+    @Size(max = 200, message = "La clínica no puede tener más de 200 caracteres")
+    private String clinic;
+    
+    @Size(max = 500, message = "Las notas no pueden tener más de 500 caracteres")
+    private String notes;
+    
+    @NotNull(message = "La mascota es obligatoria")
+    private Long petId;
+    
+    private boolean overdue;
+    
+    // Read-only; computed by the server
+    private VaccinationStatus status;
+    
+    private LocalDate statusSince;
+    
+    // Constructors
+    public VaccinationDTO() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public LocalDate getNextDueDate() {
+        return nextDueDate;
+    }
+    
+    public void setNextDueDate(LocalDate nextDueDate) {
+        this.nextDueDate = nextDueDate;
+    }
+    
+    public String getVeterinarian() {
+        return veterinarian;
+    }
+    
+    public void setVeterinarian(String veterinarian) {
+        this.veterinarian = veterinarian;
+    }
+    
+    public String getClinic() {
+        return clinic;
+    }
+    
+    public void setClinic(String clinic) {
+        this.clinic = clinic;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public boolean isOverdue() {
+        return overdue;
+    }
+    
+    public void setOverdue(boolean overdue) {
+        this.overdue = overdue;
+    }
+    
+    public VaccinationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(VaccinationStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDate getStatusSince() {
+        return statusSince;
+    }
+    
+    public void setStatusSince(LocalDate statusSince) {
+        this.statusSince = statusSince;
+    }
+}
@@ -0,0 +1,82 @@
+package com.pets.api.dto;
+
+import java.time.LocalDate;
+
+public class WidgetPetDTO {
+    
+    private Long id;
+    private String name;
+    private String icon;
+    
+    // Next due item: an event occurrence or a vaccination (overdue ones come first); null if none
+    private String nextType;
+    private String nextTitle;
+    private LocalDate nextDate;
+    private boolean nextOverdue;
+    
+    // Constructors
+    public WidgetPetDTO() {}
+    
+    public WidgetPetDTO(Long id, String name, String icon) {
+        this.id = id;
+        this.name = name;
+        this.icon = icon;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getIcon() {
+        return icon;
+    }
+    
+    public void setIcon(String icon) {
+        this.icon = icon;
+    }
+    
+    public String getNextType() {
+        return nextType;
+    }
+    
+    public void setNextType(String nextType) {
+        this.nextType = nextType;
+    }
+    
+    public String getNextTitle() {
+        return nextTitle;
+    }
+    
+    public void setNextTitle(String nextTitle) {
+        this.nextTitle = nextTitle;
+    }
+    
+    public LocalDate getNextDate() {
+        return nextDate;
+    }
+    
+    public void setNextDate(LocalDate nextDate) {
+        this.nextDate = nextDate;
+    }
+    
+    public boolean isNextOverdue() {
+        return nextOverdue;
+    }
+    
+    public void setNextOverdue(boolean nextOverdue) {
+        this.nextOverdue = nextOverdue;
+    }
+}
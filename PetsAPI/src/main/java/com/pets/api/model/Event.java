@@ -2,11 +2,16 @@ package com.pets.api.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_pet_interval", columnList = "pet_id, series_end, date")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, includeLazy = false)
 public class Event {
     
     @Id
@@ -33,6 +38,19 @@ public class Event {
     @Size(max = 100, message = "El contacto no puede tener más de 100 caracteres")
     private String contact;
     
+    // Recurring events are stored once as a rule and expanded when queried
+    @Enumerated(EnumType.STRING)
+    private RecurrenceFrequency recurrence;
+    
+    @Min(value = 1, message = "El intervalo de repetición debe ser al menos 1")
+    private Integer recurrenceInterval;
+    
+    private LocalDate recurrenceUntil;
+    
+    // Last date the event (or its series) can occur, so range queries are a plain interval overlap
+    @Column(name = "series_end", nullable = false)
+    private LocalDate seriesEnd;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pet_id", nullable = false)
     @NotNull(message = "La mascota es obligatoria")
@@ -111,6 +129,34 @@ public class Event {
         this.contact = contact;
     }
     
+    public RecurrenceFrequency getRecurrence() {
+        return recurrence;
+    }
+    
+    public void setRecurrence(RecurrenceFrequency recurrence) {
+        this.recurrence = recurrence;
+    }
+    
+    public Integer getRecurrenceInterval() {
+        return recurrenceInterval;
+    }
+    
+    public void setRecurrenceInterval(Integer recurrenceInterval) {
+        this.recurrenceInterval = recurrenceInterval;
+    }
+    
+    public LocalDate getRecurrenceUntil() {
+        return recurrenceUntil;
+    }
+    
+    public void setRecurrenceUntil(LocalDate recurrenceUntil) {
+        this.recurrenceUntil = recurrenceUntil;
+    }
+    
+    public LocalDate getSeriesEnd() {
+        return seriesEnd;
+    }
+    
     public Pet getPet() {
         return pet;
     }
@@ -127,7 +173,44 @@ public class Event {
         this.createdAt = createdAt;
     }
     
+    @PrePersist
+    @PreUpdate
+    private void updateSeriesEnd() {
+        if (recurrence == null) {
+            seriesEnd = date;
+        } else {
+            seriesEnd = recurrenceUntil != null ? recurrenceUntil : LocalDate.of(9999, 12, 31);
+        }
+    }
+    
     // Calculated fields
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+    
+    public int getEffectiveRecurrenceInterval() {
+        return recurrenceInterval == null ? 1 : recurrenceInterval;
+    }
+    
+    // True while the event (or, for a series, any occurrence) is today or later
+    public boolean hasUpcomingOccurrence() {
+        LocalDate today = LocalDate.now();
+        if (recurrence == null) {
+            return !date.isBefore(today);
+        }
+        return recurrenceUntil == null || !recurrenceUntil.isBefore(today);
+    }
+    
+    // First date on or after the given day when the event (or its series) occurs; null if none is left
+    public LocalDate nextOccurrenceOnOrAfter(LocalDate day) {
+        if (recurrence == null) {
+            return date.isBefore(day) ? null : date;
+        }
+        int interval = getEffectiveRecurrenceInterval();
+        LocalDate next = recurrence.occurrence(date, interval, recurrence.firstIndexOnOrAfter(date, interval, day));
+        return recurrenceUntil != null && next.isAfter(recurrenceUntil) ? null : next;
+    }
+    
     public boolean isUpcoming() {
         return date.isAfter(LocalDate.now()) || date.isEqual(LocalDate.now());
     }
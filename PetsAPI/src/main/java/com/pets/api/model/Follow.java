@@ -0,0 +1,74 @@
+package com.pets.api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+
+// Stored on the follower's shard; the pet may live on any shard, so it is referenced by id only
+@Entity
+@Table(name = "follows", indexes = {
+    @Index(name = "uk_follows_follower_pet", columnList = "follower_email, pet_id", unique = true),
+    @Index(name = "idx_follows_pet_id", columnList = "pet_id")
+})
+public class Follow {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotBlank(message = "El email del seguidor es obligatorio")
+    @Email(message = "Formato de email inválido")
+    @Column(name = "follower_email")
+    private String followerEmail;
+    
+    @NotNull(message = "La mascota es obligatoria")
+    @Column(name = "pet_id")
+    private Long petId;
+    
+    @NotNull(message = "La fecha de creación es obligatoria")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public Follow() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Follow(String followerEmail, Long petId) {
+        this();
+        this.followerEmail = followerEmail;
+        this.petId = petId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getFollowerEmail() {
+        return followerEmail;
+    }
+    
+    public void setFollowerEmail(String followerEmail) {
+        this.followerEmail = followerEmail;
+    }
+    
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
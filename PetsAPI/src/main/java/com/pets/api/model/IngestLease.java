@@ -0,0 +1,55 @@
+package com.pets.api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Which node holds the spooled upload of a PROCESSING post, and until when; kept on the post's shard.
+// Not in the second-level cache, so renewing leases never invalidates cached posts.
+@Entity
+@Table(name = "post_ingest_leases")
+public class IngestLease {
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(nullable = false, length = 64)
+    private String node;
+    
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+    
+    // Constructors
+    public IngestLease() {}
+    
+    public IngestLease(Long postId, String node, LocalDateTime leaseUntil) {
+        this.postId = postId;
+        this.node = node;
+        this.leaseUntil = leaseUntil;
+    }
+    
+    // Getters and Setters
+    public Long getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+    
+    public String getNode() {
+        return node;
+    }
+    
+    public void setNode(String node) {
+        this.node = node;
+    }
+    
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
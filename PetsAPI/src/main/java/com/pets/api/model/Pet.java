@@ -2,12 +2,19 @@ package com.pets.api.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+    @Index(name = "uk_pets_microchip_number", columnList = "microchip_number", unique = true)
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, includeLazy = false)
+@SQLRestriction("deleted_at IS NULL")
 public class Pet {
     
     @Id
@@ -46,7 +53,9 @@ public class Pet {
     @Column(columnDefinition = "LONGTEXT")
     private String photoUrl;
     
+    // Lazy so entity cache entries and list queries never carry the blob
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "LONGBLOB")
     private byte[] imageData;
     
@@ -66,13 +75,23 @@ public class Pet {
     @NotNull(message = "La fecha de creación es obligatoria")
     private LocalDateTime createdAt;
     
+    // Set when the pet is deleted; the row and its history are purged in the background
+    private LocalDateTime deletedAt;
+    
+    // Maintained with atomic SQL increments by the follow endpoints, never written by the entity
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private int followerCount;
+    
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Event> events;
     
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Vaccination> vaccinations;
     
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Post> posts;
     
     // Constructors
@@ -207,6 +226,18 @@ public class Pet {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
+    public int getFollowerCount() {
+        return followerCount;
+    }
+    
     public List<Event> getEvents() {
         return events;
     }
@@ -233,12 +264,21 @@ public class Pet {
     
     // Calculated fields
     public int getAge() {
-        if (birthDate == null) return 0;
-        return LocalDate.now().getYear() - birthDate.getYear();
+        return getAge(LocalDate.now());
     }
     
     public int getAgeInMonths() {
+        return getAgeInMonths(LocalDate.now());
+    }
+    
+    // Same as above on a given day, so list endpoints read the clock once per request
+    public int getAge(LocalDate today) {
+        if (birthDate == null) return 0;
+        return today.getYear() - birthDate.getYear();
+    }
+    
+    public int getAgeInMonths(LocalDate today) {
         if (birthDate == null) return 0;
-        return (int) java.time.temporal.ChronoUnit.MONTHS.between(birthDate, LocalDate.now());
+        return (int) java.time.temporal.ChronoUnit.MONTHS.between(birthDate, today);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.pets.api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Read model for pet profiles, kept on the pet's shard and updated in the same transaction as each write
+@Entity
+@Table(name = "pet_stats")
+public class PetStats {
+    
+    @Id
+    @Column(name = "pet_id")
+    private Long petId;
+    
+    private int postCount;
+    
+    private long likesReceived;
+    
+    private int upcomingEvents;
+    
+    private int overdueVaccinations;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public PetStats() {}
+    
+    // Getters and Setters
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public int getPostCount() {
+        return postCount;
+    }
+    
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+    
+    public long getLikesReceived() {
+        return likesReceived;
+    }
+    
+    public void setLikesReceived(long likesReceived) {
+        this.likesReceived = likesReceived;
+    }
+    
+    public int getUpcomingEvents() {
+        return upcomingEvents;
+    }
+    
+    public void setUpcomingEvents(int upcomingEvents) {
+        this.upcomingEvents = upcomingEvents;
+    }
+    
+    public int getOverdueVaccinations() {
+        return overdueVaccinations;
+    }
+    
+    public void setOverdueVaccinations(int overdueVaccinations) {
+        this.overdueVaccinations = overdueVaccinations;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
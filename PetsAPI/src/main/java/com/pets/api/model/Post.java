@@ -2,12 +2,15 @@ package com.pets.api.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "posts")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, includeLazy = false)
 public class Post {
     
     @Id
@@ -19,21 +22,30 @@ public class Post {
     @NotNull(message = "La mascota es obligatoria")
     private Pet pet;
     
+    // Lazy so entity cache entries and list queries never carry the blob
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "LONGBLOB")
     private byte[] imageData;
     
     @NotNull(message = "La fecha de creación es obligatoria")
     private LocalDateTime createdAt;
     
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El estado es obligatorio")
+    private PostStatus status;
+    
     @ElementCollection
-    @CollectionTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"),
+            indexes = @Index(name = "idx_post_likes_pet_id", columnList = "pet_id"))
     @Column(name = "pet_id")
     private Set<Long> likes = new HashSet<>();
     
     // Constructors
     public Post() {
         this.createdAt = LocalDateTime.now();
+        this.status = PostStatus.READY;
     }
     
     public Post(Pet pet, byte[] imageData) {
@@ -75,6 +87,14 @@ public class Post {
         this.createdAt = createdAt;
     }
     
+    public PostStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PostStatus status) {
+        this.status = status;
+    }
+    
     public Set<Long> getLikes() {
         return likes;
     }
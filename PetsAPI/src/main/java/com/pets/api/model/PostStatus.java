@@ -0,0 +1,17 @@
+package com.pets.api.model;
+
+public enum PostStatus {
+    PROCESSING("Procesando"),
+    READY("Publicado"),
+    FAILED("Error");
+    
+    private final String displayName;
+    
+    PostStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pets.api.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public enum RecurrenceFrequency {
+    DAILY("Diario", ChronoUnit.DAYS),
+    WEEKLY("Semanal", ChronoUnit.WEEKS),
+    MONTHLY("Mensual", ChronoUnit.MONTHS),
+    YEARLY("Anual", ChronoUnit.YEARS);
+    
+    private final String displayName;
+    private final ChronoUnit unit;
+    
+    RecurrenceFrequency(String displayName, ChronoUnit unit) {
+        this.displayName = displayName;
+        this.unit = unit;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    // Occurrence number n of a series; always computed from the start so month ends do not drift
+    public LocalDate occurrence(LocalDate start, int interval, long n) {
+        return start.plus(n * interval, unit);
+    }
+    
+    // Index of the first occurrence on or after the given date
+    public long firstIndexOnOrAfter(LocalDate start, int interval, LocalDate date) {
+        if (!date.isAfter(start)) {
+            return 0;
+        }
+        long n = unit.between(start, date) / interval;
+        while (occurrence(start, interval, n).isBefore(date)) {
+            n++;
+        }
+        return n;
+    }
+}
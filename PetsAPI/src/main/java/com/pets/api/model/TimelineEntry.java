@@ -0,0 +1,76 @@
+package com.pets.api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+
+// One post pushed into an owner's home timeline; written and read in bulk with plain SQL
+@Entity
+@Table(name = "timeline_entries", indexes = {
+    @Index(name = "idx_timeline_entries_owner_created", columnList = "owner_email, created_at, post_id"),
+    @Index(name = "idx_timeline_entries_pet_id", columnList = "pet_id")
+})
+public class TimelineEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotBlank(message = "El email del dueño es obligatorio")
+    @Column(name = "owner_email")
+    private String ownerEmail;
+    
+    @NotNull(message = "El post es obligatorio")
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @NotNull(message = "La mascota es obligatoria")
+    @Column(name = "pet_id")
+    private Long petId;
+    
+    // Creation time of the post, not of the entry
+    @NotNull(message = "La fecha de creación es obligatoria")
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOwnerEmail() {
+        return ownerEmail;
+    }
+    
+    public void setOwnerEmail(String ownerEmail) {
+        this.ownerEmail = ownerEmail;
+    }
+    
+    public Long getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+    
+    public Long getPetId() {
+        return petId;
+    }
+    
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -2,13 +2,22 @@ package com.pets.api.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vaccinations")
+@Table(name = "vaccinations", indexes = {
+    @Index(name = "idx_vaccinations_next_due_date", columnList = "next_due_date"),
+    @Index(name = "idx_vaccinations_status_next_due_date", columnList = "status, next_due_date")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, includeLazy = false)
 public class Vaccination {
     
+    // Days before the next dose during which a vaccination is due soon
+    public static final int DUE_SOON_DAYS = 30;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,6 +49,15 @@ public class Vaccination {
     @NotNull(message = "La fecha de creación es obligatoria")
     private LocalDateTime createdAt;
     
+    // Persisted so dashboards are equality lookups; set on every write and moved forward by the daily refresh
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private VaccinationStatus status;
+    
+    // Day the current status was reached
+    @Column(nullable = false)
+    private LocalDate statusSince;
+    
     // Constructors
     public Vaccination() {
         this.createdAt = LocalDateTime.now();
@@ -126,9 +144,38 @@ public class Vaccination {
         this.createdAt = createdAt;
     }
     
+    public VaccinationStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDate getStatusSince() {
+        return statusSince;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    private void updateStatus() {
+        LocalDate today = LocalDate.now();
+        VaccinationStatus current = statusOn(nextDueDate, today);
+        if (current != status) {
+            status = current;
+            statusSince = today;
+        }
+    }
+    
+    public static VaccinationStatus statusOn(LocalDate nextDueDate, LocalDate today) {
+        if (nextDueDate.isBefore(today)) {
+            return VaccinationStatus.OVERDUE;
+        }
+        if (!nextDueDate.isAfter(today.plusDays(DUE_SOON_DAYS))) {
+            return VaccinationStatus.DUE_SOON;
+        }
+        return VaccinationStatus.OK;
+    }
+    
     // Calculated fields
     public boolean isOverdue() {
-        return nextDueDate.isBefore(LocalDate.now());
+        return status == VaccinationStatus.OVERDUE;
     }
     
     public long getDaysUntilDue() {
@@ -136,7 +183,6 @@ public class Vaccination {
     }
     
     public boolean isDueSoon() {
-        long daysUntilDue = getDaysUntilDue();
-        return daysUntilDue >= 0 && daysUntilDue <= 30;
+        return status == VaccinationStatus.DUE_SOON;
     }
 } 
\ No newline at end of file
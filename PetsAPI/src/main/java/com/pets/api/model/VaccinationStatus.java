@@ -0,0 +1,17 @@
+package com.pets.api.model;
+
+public enum VaccinationStatus {
+    OK("Al día"),
+    DUE_SOON("Próxima"),
+    OVERDUE("Vencida");
+    
+    private final String displayName;
+    
+    VaccinationStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface EventRepository extends JpaRepository<Event, Long> {
     
     List<Event> findByPetIdOrderByDateAsc(Long petId);
@@ -28,4 +30,11 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     
     @Query("SELECT e FROM Event e WHERE e.eventType = :eventType AND e.pet.ownerEmail = :ownerEmail ORDER BY e.date ASC")
     List<Event> findByEventTypeAndOwner(@Param("eventType") String eventType, @Param("ownerEmail") String ownerEmail);
+    
+    // Events (or recurring series) whose [date, seriesEnd] interval overlaps [from, to]
+    @Query("SELECT e FROM Event e JOIN FETCH e.pet p WHERE p.ownerEmail = :ownerEmail AND e.date <= :to AND e.seriesEnd >= :from")
+    List<Event> findOverlappingByOwner(@Param("ownerEmail") String ownerEmail, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT e FROM Event e JOIN FETCH e.pet p WHERE p.id = :petId AND e.date <= :to AND e.seriesEnd >= :from")
+    List<Event> findOverlappingByPetId(@Param("petId") Long petId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 } 
\ No newline at end of file
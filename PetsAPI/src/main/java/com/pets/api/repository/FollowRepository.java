@@ -0,0 +1,30 @@
+package com.pets.api.repository;
+
+import com.pets.api.model.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    
+    @Query("SELECT f.petId FROM Follow f WHERE f.followerEmail = :followerEmail ORDER BY f.createdAt DESC")
+    List<Long> findPetIdsByFollowerEmail(@Param("followerEmail") String followerEmail);
+    
+    // Followers on the current shard only; callers scatter over every shard
+    @Query("SELECT f.followerEmail FROM Follow f WHERE f.petId = :petId")
+    List<String> findFollowerEmailsByPetId(@Param("petId") Long petId);
+    
+    boolean existsByFollowerEmailAndPetId(String followerEmail, Long petId);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Follow f WHERE f.followerEmail = :followerEmail AND f.petId = :petId")
+    int deleteByFollowerEmailAndPetId(@Param("followerEmail") String followerEmail, @Param("petId") Long petId);
+}
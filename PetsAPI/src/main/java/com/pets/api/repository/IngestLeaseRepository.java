@@ -0,0 +1,36 @@
+package com.pets.api.repository;
+
+import com.pets.api.model.IngestLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface IngestLeaseRepository extends JpaRepository<IngestLease, Long> {
+    
+    // Heartbeat: extends every lease this node holds
+    @Modifying
+    @Transactional
+    @Query("UPDATE IngestLease l SET l.leaseUntil = :until WHERE l.node = :node")
+    int renew(@Param("node") String node, @Param("until") LocalDateTime until);
+    
+    // Takes over a lease that expired or that this node already holds; 0 when another node still holds it
+    @Modifying
+    @Transactional
+    @Query("UPDATE IngestLease l SET l.node = :node, l.leaseUntil = :until " +
+           "WHERE l.postId = :postId AND (l.node = :node OR l.leaseUntil < :now)")
+    int takeOver(@Param("postId") Long postId, @Param("node") String node,
+                 @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+    
+    // Recovery candidates: PROCESSING posts whose lease is held by this node, expired, or was never written
+    @Query("SELECT p.id FROM Post p WHERE p.status = com.pets.api.model.PostStatus.PROCESSING AND NOT EXISTS " +
+           "(SELECT l FROM IngestLease l WHERE l.postId = p.id AND l.node <> :node AND l.leaseUntil >= :now)")
+    List<Long> findRecoverablePostIds(@Param("node") String node, @Param("now") LocalDateTime now);
+}
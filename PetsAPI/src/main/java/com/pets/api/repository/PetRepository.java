@@ -1,22 +1,30 @@
 package com.pets.api.repository;
 
 import com.pets.api.model.Pet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface PetRepository extends JpaRepository<Pet, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Pet> findByOwnerEmail(String ownerEmail);
     
     @Query("SELECT p FROM Pet p WHERE p.ownerEmail = :email ORDER BY p.createdAt DESC")
     List<Pet> findPetsByOwnerEmailOrderByCreatedAt(@Param("email") String email);
     
     @Query("SELECT p FROM Pet p WHERE p.species = :species")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Pet> findBySpecies(@Param("species") String species);
     
     @Query("SELECT p FROM Pet p WHERE p.breed LIKE %:breed%")
@@ -24,4 +32,12 @@ public interface PetRepository extends JpaRepository<Pet, Long> {
     
     @Query("SELECT p FROM Pet p WHERE p.name LIKE %:name%")
     List<Pet> findByNameContaining(@Param("name") String name);
+    
+    Optional<Pet> findByMicrochipNumber(String microchipNumber);
+    
+    @Query("SELECT p.microchipNumber FROM Pet p WHERE p.microchipNumber IS NOT NULL")
+    List<String> findAllMicrochipNumbers();
+    
+    @Query("SELECT p.ownerEmail, p.species, p.breed, COUNT(p) FROM Pet p GROUP BY p.ownerEmail, p.species, p.breed")
+    List<Object[]> countFacets();
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.pets.api.repository;
+
+import com.pets.api.model.PetStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface PetStatsRepository extends JpaRepository<PetStats, Long> {
+    
+    // Joins the caller's transaction, so the counters change atomically with the write they describe
+    @Modifying
+    @Transactional
+    @Query("UPDATE PetStats s SET s.postCount = s.postCount + :posts, s.likesReceived = s.likesReceived + :likes, " +
+           "s.upcomingEvents = s.upcomingEvents + :events, s.overdueVaccinations = s.overdueVaccinations + :vaccinations, " +
+           "s.updatedAt = LOCAL DATETIME WHERE s.petId = :petId")
+    int adjust(@Param("petId") Long petId, @Param("posts") int posts, @Param("likes") int likes,
+               @Param("events") int events, @Param("vaccinations") int vaccinations);
+}
@@ -1,5 +1,6 @@
 package com.pets.api.repository;
 
+import com.pets.api.dto.PostDTO;
 import com.pets.api.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,23 +8,52 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface PostRepository extends JpaRepository<Post, Long> {
     
-    List<Post> findByPetIdOrderByCreatedAtDesc(Long petId);
+    @Query("SELECT p FROM Post p WHERE p.pet.id = :petId AND p.status = com.pets.api.model.PostStatus.READY ORDER BY p.createdAt DESC")
+    List<Post> findByPetIdOrderByCreatedAtDesc(@Param("petId") Long petId);
     
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p WHERE p.status = com.pets.api.model.PostStatus.READY ORDER BY p.createdAt DESC")
     Page<Post> findAllOrderByCreatedAtDesc(Pageable pageable);
     
-    @Query("SELECT p FROM Post p WHERE p.pet.ownerEmail = :ownerEmail ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p WHERE p.pet.ownerEmail = :ownerEmail AND p.status = com.pets.api.model.PostStatus.READY ORDER BY p.createdAt DESC")
     List<Post> findByOwnerEmailOrderByCreatedAtDesc(@Param("ownerEmail") String ownerEmail);
     
-    @Query("SELECT p FROM Post p WHERE p.pet.id IN :petIds ORDER BY p.createdAt DESC")
-    List<Post> findByPetIdsOrderByCreatedAtDesc(@Param("petIds") List<Long> petIds);
+    // Keyset page: posts strictly older than (before, beforeId)
+    @Query("SELECT p FROM Post p WHERE p.pet.id IN :petIds AND p.status = com.pets.api.model.PostStatus.READY " +
+           "AND (p.createdAt < :before OR (p.createdAt = :before AND p.id < :beforeId)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByPetIdsOrderByCreatedAtDesc(@Param("petIds") List<Long> petIds,
+                                                @Param("before") LocalDateTime before,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
     
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.pet.id = :petId")
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.pet.id = :petId AND p.status = com.pets.api.model.PostStatus.READY")
     long countByPetId(@Param("petId") Long petId);
+    
+    @Query("SELECT p.pet.id, COUNT(p) FROM Post p WHERE p.pet.id IN :petIds AND p.status = com.pets.api.model.PostStatus.READY GROUP BY p.pet.id")
+    List<Object[]> countByPetIds(@Param("petIds") List<Long> petIds);
+    
+    @Query("SELECT new com.pets.api.dto.PostDTO(p.id, p.pet.id, p.pet.name, p.createdAt) FROM Post p WHERE p.id IN :postIds AND p.status = com.pets.api.model.PostStatus.READY")
+    List<PostDTO> findSummariesByIds(@Param("postIds") List<Long> postIds);
+    
+    @Query("SELECT new com.pets.api.dto.PostDTO(p.id, p.pet.id, p.pet.name, p.createdAt, SIZE(p.likes)) FROM Post p WHERE p.id IN :postIds AND p.status = com.pets.api.model.PostStatus.READY")
+    List<PostDTO> findSummariesWithLikesByIds(@Param("postIds") List<Long> postIds);
+    
+    // Trending seed only: READY posts since the cutoff with their like counts
+    @Query("SELECT p.id, p.createdAt, SIZE(p.likes) FROM Post p WHERE p.status = com.pets.api.model.PostStatus.READY AND p.createdAt >= :since")
+    List<Object[]> findTrendingSeed(@Param("since") LocalDateTime since);
+    
+    // Startup recovery: posts whose ingestion was interrupted
+    @Query("SELECT p.id FROM Post p WHERE p.status = com.pets.api.model.PostStatus.PROCESSING")
+    List<Long> findProcessingIds();
+    
+    @Query("SELECT p.id FROM Post p JOIN p.likes l WHERE p.id IN :postIds AND l = :petId")
+    List<Long> findPostIdsLikedByPet(@Param("petId") Long petId, @Param("postIds") List<Long> postIds);
 } 
\ No newline at end of file
@@ -1,15 +1,19 @@
 package com.pets.api.repository;
 
 import com.pets.api.model.Vaccination;
+import com.pets.api.model.VaccinationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface VaccinationRepository extends JpaRepository<Vaccination, Long> {
     
     List<Vaccination> findByPetIdOrderByNextDueDateAsc(Long petId);
@@ -17,18 +21,34 @@ public interface VaccinationRepository extends JpaRepository<Vaccination, Long>
     @Query("SELECT v FROM Vaccination v WHERE v.pet.ownerEmail = :ownerEmail ORDER BY v.nextDueDate ASC")
     List<Vaccination> findByOwnerEmailOrderByNextDueDateAsc(@Param("ownerEmail") String ownerEmail);
     
-    @Query("SELECT v FROM Vaccination v WHERE v.nextDueDate < :today ORDER BY v.nextDueDate ASC")
-    List<Vaccination> findOverdueVaccinations(@Param("today") LocalDate today);
+    // Status lookups use the (status, next_due_date) index
+    @Query("SELECT v FROM Vaccination v WHERE v.status = :status ORDER BY v.nextDueDate ASC")
+    List<Vaccination> findByStatus(@Param("status") VaccinationStatus status);
     
-    @Query("SELECT v FROM Vaccination v WHERE v.pet.ownerEmail = :ownerEmail AND v.nextDueDate < :today ORDER BY v.nextDueDate ASC")
-    List<Vaccination> findOverdueVaccinationsByOwner(@Param("ownerEmail") String ownerEmail, @Param("today") LocalDate today);
+    @Query("SELECT v FROM Vaccination v WHERE v.pet.ownerEmail = :ownerEmail AND v.status = :status ORDER BY v.nextDueDate ASC")
+    List<Vaccination> findByOwnerEmailAndStatus(@Param("ownerEmail") String ownerEmail, @Param("status") VaccinationStatus status);
     
-    @Query("SELECT v FROM Vaccination v WHERE v.pet.id = :petId AND v.nextDueDate < :today ORDER BY v.nextDueDate ASC")
-    List<Vaccination> findOverdueVaccinationsByPetId(@Param("petId") Long petId, @Param("today") LocalDate today);
+    @Query("SELECT v FROM Vaccination v WHERE v.pet.id = :petId AND v.status = :status ORDER BY v.nextDueDate ASC")
+    List<Vaccination> findByPetIdAndStatus(@Param("petId") Long petId, @Param("status") VaccinationStatus status);
     
-    @Query("SELECT v FROM Vaccination v WHERE v.nextDueDate BETWEEN :today AND :thirtyDaysLater ORDER BY v.nextDueDate ASC")
-    List<Vaccination> findVaccinationsDueSoon(@Param("today") LocalDate today, @Param("thirtyDaysLater") LocalDate thirtyDaysLater);
+    @Query("SELECT v FROM Vaccination v JOIN FETCH v.pet p WHERE p.ownerEmail = :ownerEmail AND v.nextDueDate BETWEEN :from AND :to ORDER BY v.nextDueDate ASC")
+    List<Vaccination> findDueBetweenByOwner(@Param("ownerEmail") String ownerEmail, @Param("from") LocalDate from, @Param("to") LocalDate to);
     
-    @Query("SELECT v FROM Vaccination v WHERE v.pet.ownerEmail = :ownerEmail AND v.nextDueDate BETWEEN :today AND :thirtyDaysLater ORDER BY v.nextDueDate ASC")
-    List<Vaccination> findVaccinationsDueSoonByOwner(@Param("ownerEmail") String ownerEmail, @Param("today") LocalDate today, @Param("thirtyDaysLater") LocalDate thirtyDaysLater);
-} 
\ No newline at end of file
+    @Query("SELECT v FROM Vaccination v JOIN FETCH v.pet p WHERE p.id = :petId AND v.nextDueDate BETWEEN :from AND :to ORDER BY v.nextDueDate ASC")
+    List<Vaccination> findDueBetweenByPetId(@Param("petId") Long petId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Daily refresh: only rows whose next dose has just passed, found by a range on the status index
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vaccination v SET v.status = com.pets.api.model.VaccinationStatus.OVERDUE, v.statusSince = :today " +
+           "WHERE v.status IN (com.pets.api.model.VaccinationStatus.OK, com.pets.api.model.VaccinationStatus.DUE_SOON) " +
+           "AND v.nextDueDate < :today")
+    int markOverdue(@Param("today") LocalDate today);
+    
+    // Daily refresh: only rows whose next dose has just entered the due-soon window
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vaccination v SET v.status = com.pets.api.model.VaccinationStatus.DUE_SOON, v.statusSince = :today " +
+           "WHERE v.status = com.pets.api.model.VaccinationStatus.OK AND v.nextDueDate BETWEEN :today AND :dueSoonUntil")
+    int markDueSoon(@Param("today") LocalDate today, @Param("dueSoonUntil") LocalDate dueSoonUntil);
+}
@@ -0,0 +1,173 @@
+package com.pets.api.service;
+
+import com.pets.api.config.AccessLogProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log: one JSON line per logged request on the {@code pets.access} logger.
+ *
+ * Request threads only decide whether to sample and claim a slot in a
+ * lock-free multi-producer ring buffer; formatting and the actual logging run
+ * on a single writer thread. Slow requests and 5xx responses bypass sampling.
+ * When the writer falls behind the buffer size, lines are dropped and counted
+ * rather than blocking requests.
+ */
+@Service
+public class AccessLogService {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("pets.access");
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AccessLogProperties properties;
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int capacity;
+    private final int mask;
+
+    // Next sequence to claim (producers) and next sequence to read (writer thread only)
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AccessLogService(AccessLogProperties properties) {
+        this.properties = properties;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs());
+        this.capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize() - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.writerThread = new Thread(this::drain, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void record(String method, String endpoint, int status, long latencyNanos, long bytes, int queries) {
+        String reason;
+        if (status >= 500) {
+            reason = "error";
+        } else if (latencyNanos >= slowThresholdNanos) {
+            reason = "slow";
+        } else if (isSampled(method, endpoint)) {
+            reason = "sampled";
+        } else {
+            sampledOut.increment();
+            return;
+        }
+        offer(new AccessLogEntry(System.currentTimeMillis(), method, endpoint, status, latencyNanos,
+                bytes, queries, reason));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buffered", tail.get() - head);
+        stats.put("capacity", capacity);
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("sampledOut", sampledOut.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    // Helper methods
+    private boolean isSampled(String method, String endpoint) {
+        Double rate = properties.getSampleRates().get(method + " " + endpoint);
+        double sampleRate = rate != null ? rate : properties.getDefaultSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void offer(AccessLogEntry entry) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) (sequence & mask), entry);
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            long sequence = head;
+            int index = (int) (sequence & mask);
+            AccessLogEntry entry = slots.get(index);
+            if (entry == null) {
+                if (!running) {
+                    return;
+                }
+                if (sequence == tail.get()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else {
+                    // Slot claimed but not yet published by its producer
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            slots.set(index, null);
+            head = sequence + 1;
+            try {
+                line.setLength(0);
+                entry.appendJson(line);
+                accessLog.info(line.toString());
+                written.increment();
+            } catch (RuntimeException e) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private record AccessLogEntry(long timestamp, String method, String endpoint, int status,
+                                  long latencyNanos, long bytes, int queries, String reason) {
+
+        void appendJson(StringBuilder line) {
+            line.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestamp))
+                    .append("\",\"method\":\"").append(method)
+                    .append("\",\"endpoint\":\"");
+            appendEscaped(line, endpoint);
+            line.append("\",\"status\":").append(status)
+                    .append(",\"latencyMs\":").append(latencyNanos / 1000 / 1000.0)
+                    .append(",\"bytes\":").append(bytes)
+                    .append(",\"queries\":").append(queries)
+                    .append(",\"reason\":\"").append(reason)
+                    .append("\"}");
+        }
+
+        private static void appendEscaped(StringBuilder line, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c >= 0x20) {
+                    line.append(c);
+                }
+            }
+        }
+    }
+}
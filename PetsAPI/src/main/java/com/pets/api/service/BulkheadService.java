@@ -0,0 +1,156 @@
+package com.pets.api.service;
+
+import com.pets.api.config.BulkheadProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkheads between image downloads, uploads and the JSON API.
+ *
+ * Each lane has its own limit of requests in progress, a short bounded queue
+ * in front of it and its own share of JDBC connections, so a burst of slow
+ * image clients or large uploads cannot take the worker threads or the
+ * connection pool away from the JSON endpoints. Requests that find their lane
+ * and its queue full are shed instead of waiting.
+ */
+@Service
+public class BulkheadService {
+
+    public static final String API = "api";
+    public static final String IMAGES = "images";
+    public static final String UPLOADS = "uploads";
+
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final int retryAfterSeconds;
+
+    public BulkheadService(BulkheadProperties properties) {
+        lanes.put(API, new Lane(API, properties.getApi()));
+        lanes.put(IMAGES, new Lane(IMAGES, properties.getImages()));
+        lanes.put(UPLOADS, new Lane(UPLOADS, properties.getUploads()));
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+    }
+
+    public Lane lane(String name) {
+        return lanes.get(name);
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Lane lane : lanes.values()) {
+            stats.put(lane.name, lane.getStats());
+        }
+        return stats;
+    }
+
+    public static final class Lane {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final int queueSize;
+        private final long queueTimeoutNanos;
+        private final Semaphore slots;
+        private final AtomicInteger queued = new AtomicInteger();
+
+        // Null when the lane may use any number of connections
+        private final Semaphore connections;
+        private final int maxConnections;
+        private final long connectionTimeoutNanos;
+
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder shedQueueFull = new LongAdder();
+        private final LongAdder shedQueueTimeout = new LongAdder();
+        private final LongAdder connectionTimeouts = new LongAdder();
+
+        Lane(String name, BulkheadProperties.Lane properties) {
+            this.name = name;
+            this.maxConcurrent = properties.getMaxConcurrent();
+            this.queueSize = properties.getQueueSize();
+            this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getQueueTimeoutMs());
+            this.slots = new Semaphore(maxConcurrent, true);
+            this.maxConnections = properties.getMaxConnections();
+            this.connections = maxConnections > 0 ? new Semaphore(maxConnections, true) : null;
+            this.connectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getConnectionTimeoutMs());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Takes a slot, waiting in the lane's queue if there is room in it.
+         * Returns false if the request has to be shed; otherwise the caller
+         * must call {@link #exit()} once the response is complete.
+         */
+        public boolean tryEnter() throws InterruptedException {
+            if (slots.tryAcquire()) {
+                admitted.increment();
+                return true;
+            }
+            if (queued.incrementAndGet() > queueSize) {
+                queued.decrementAndGet();
+                shedQueueFull.increment();
+                return false;
+            }
+            try {
+                if (slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    admitted.increment();
+                    return true;
+                }
+                shedQueueTimeout.increment();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        public void exit() {
+            slots.release();
+        }
+
+        public boolean hasConnectionLimit() {
+            return connections != null;
+        }
+
+        // Returns false if none of the lane's connections was freed in time
+        public boolean acquireConnection() throws InterruptedException {
+            if (connections.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            connectionTimeouts.increment();
+            return false;
+        }
+
+        public void releaseConnection() {
+            connections.release();
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            int active = maxConcurrent - slots.availablePermits();
+            stats.put("active", active);
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("saturation", maxConcurrent == 0 ? 1.0 : (double) active / maxConcurrent);
+            stats.put("queued", queued.get());
+            stats.put("queueSize", queueSize);
+            stats.put("admitted", admitted.sum());
+            stats.put("shedQueueFull", shedQueueFull.sum());
+            stats.put("shedQueueTimeout", shedQueueTimeout.sum());
+            if (connections != null) {
+                stats.put("connectionsInUse", maxConnections - connections.availablePermits());
+                stats.put("maxConnections", maxConnections);
+                stats.put("connectionTimeouts", connectionTimeouts.sum());
+            }
+            return stats;
+        }
+    }
+}
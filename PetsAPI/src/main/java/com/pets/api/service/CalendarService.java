@@ -0,0 +1,95 @@
+package com.pets.api.service;
+
+import com.pets.api.dto.CalendarEntryDTO;
+import com.pets.api.model.Event;
+import com.pets.api.model.RecurrenceFrequency;
+import com.pets.api.model.Vaccination;
+import com.pets.api.repository.EventRepository;
+import com.pets.api.repository.VaccinationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Calendar range queries over events and vaccination due dates.
+ *
+ * Recurring events are stored once as a rule; the index on
+ * {@code (pet_id, series_end, date)} finds, per pet of the owner, the rules
+ * whose series has not ended before the window (checking the start inside the
+ * index), and occurrences are generated only for the dates inside it.
+ */
+@Service
+public class CalendarService {
+
+    private final EventRepository eventRepository;
+    private final VaccinationRepository vaccinationRepository;
+    private final int maxWindowDays;
+
+    public CalendarService(EventRepository eventRepository,
+                           VaccinationRepository vaccinationRepository,
+                           @Value("${pets.calendar.max-window-days:366}") int maxWindowDays) {
+        this.eventRepository = eventRepository;
+        this.vaccinationRepository = vaccinationRepository;
+        this.maxWindowDays = maxWindowDays;
+    }
+
+    public boolean isValidWindow(LocalDate from, LocalDate to) {
+        return !to.isBefore(from) && ChronoUnit.DAYS.between(from, to) < maxWindowDays;
+    }
+
+    public List<CalendarEntryDTO> getOwnerCalendar(String ownerEmail, LocalDate from, LocalDate to) {
+        return merge(eventRepository.findOverlappingByOwner(ownerEmail, from, to),
+                vaccinationRepository.findDueBetweenByOwner(ownerEmail, from, to), from, to);
+    }
+
+    public List<CalendarEntryDTO> getPetCalendar(Long petId, LocalDate from, LocalDate to) {
+        return merge(eventRepository.findOverlappingByPetId(petId, from, to),
+                vaccinationRepository.findDueBetweenByPetId(petId, from, to), from, to);
+    }
+
+    // Helper methods
+    private List<CalendarEntryDTO> merge(List<Event> events, List<Vaccination> vaccinations,
+                                         LocalDate from, LocalDate to) {
+        List<CalendarEntryDTO> entries = new ArrayList<>();
+        for (Event event : events) {
+            expand(event, from, to, entries);
+        }
+        for (Vaccination vaccination : vaccinations) {
+            entries.add(new CalendarEntryDTO(CalendarEntryDTO.TYPE_VACCINATION, vaccination.getId(),
+                    vaccination.getPet().getId(), vaccination.getPet().getName(),
+                    vaccination.getName(), vaccination.getNextDueDate()));
+        }
+        entries.sort(Comparator.comparing(CalendarEntryDTO::getDate));
+        return entries;
+    }
+
+    private void expand(Event event, LocalDate from, LocalDate to, List<CalendarEntryDTO> entries) {
+        if (!event.isRecurring()) {
+            entries.add(toEntry(event, event.getDate()));
+            return;
+        }
+        RecurrenceFrequency frequency = event.getRecurrence();
+        int interval = event.getEffectiveRecurrenceInterval();
+        LocalDate last = event.getSeriesEnd().isBefore(to) ? event.getSeriesEnd() : to;
+        for (long n = frequency.firstIndexOnOrAfter(event.getDate(), interval, from); ; n++) {
+            LocalDate occurrence = frequency.occurrence(event.getDate(), interval, n);
+            if (occurrence.isAfter(last)) {
+                break;
+            }
+            entries.add(toEntry(event, occurrence));
+        }
+    }
+
+    private CalendarEntryDTO toEntry(Event event, LocalDate date) {
+        CalendarEntryDTO entry = new CalendarEntryDTO(CalendarEntryDTO.TYPE_EVENT, event.getId(),
+                event.getPet().getId(), event.getPet().getName(), event.getTitle(), date);
+        entry.setEventType(event.getEventType());
+        entry.setRecurring(event.isRecurring());
+        return entry;
+    }
+}
@@ -0,0 +1,252 @@
+package com.pets.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Full data export of an owner as a ZIP archive: one JSON file per table
+ * (pets, events, vaccinations, posts), every pet and post image, and a
+ * manifest with the entry counts.
+ *
+ * The archive is written straight to the response while the rows are read:
+ * every table is read with a forward-only cursor and a bounded fetch size,
+ * and images are copied from the blob stream of the current row, so memory
+ * use does not depend on the amount of data. All reads share one read-only
+ * transaction for a consistent snapshot. Each export keeps a connection and
+ * a request thread busy for its whole duration, so concurrent exports are
+ * capped by their own limiter.
+ */
+@Service
+public class ExportService {
+
+    private static final String OWNER_PETS = "SELECT id FROM pets WHERE owner_email = ? AND deleted_at IS NULL";
+
+    private static final String PETS_SQL = "SELECT id, name, species, breed, birth_date, weight, color, microchip_number, "
+            + "photo_url, owner_name, owner_phone, owner_email, created_at, "
+            + "CASE WHEN image_data IS NULL THEN NULL ELSE CONCAT('images/pets/', id, '.jpg') END AS image "
+            + "FROM pets WHERE owner_email = ? AND deleted_at IS NULL ORDER BY id";
+
+    private static final String EVENTS_SQL = "SELECT id, pet_id, title, date, event_type, description, location, contact, "
+            + "recurrence, recurrence_interval, recurrence_until, created_at "
+            + "FROM events WHERE pet_id IN (" + OWNER_PETS + ") ORDER BY pet_id, date, id";
+
+    private static final String VACCINATIONS_SQL = "SELECT id, pet_id, name, date, next_due_date, status, status_since, veterinarian, clinic, notes, created_at "
+            + "FROM vaccinations WHERE pet_id IN (" + OWNER_PETS + ") ORDER BY pet_id, date, id";
+
+    private static final String POSTS_SQL = "SELECT po.id, po.pet_id, po.created_at, "
+            + "(SELECT COUNT(*) FROM post_likes l WHERE l.post_id = po.id) AS likes, "
+            + "CASE WHEN po.image_data IS NULL THEN NULL ELSE CONCAT('images/posts/', po.id, '.jpg') END AS image "
+            + "FROM posts po WHERE po.status = 'READY' AND po.pet_id IN (" + OWNER_PETS + ") ORDER BY po.id";
+
+    private static final String PET_IMAGES_SQL = "SELECT id, image_data FROM pets "
+            + "WHERE owner_email = ? AND deleted_at IS NULL AND image_data IS NOT NULL ORDER BY id";
+
+    private static final String POST_IMAGES_SQL = "SELECT po.id, po.image_data FROM posts po "
+            + "WHERE po.status = 'READY' AND po.image_data IS NOT NULL AND po.pet_id IN (" + OWNER_PETS + ") ORDER BY po.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder imagesWritten = new LongAdder();
+
+    public ExportService(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${pets.export.max-concurrent:2}") int maxConcurrent,
+                         @Value("${pets.export.fetch-size:100}") int fetchSize) {
+        // Own template so the fetch size applies to exports only; the default result set type is forward-only
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    // Takes an export slot without waiting; release it with finishExport
+    public boolean tryStartExport() {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return false;
+        }
+        started.increment();
+        return true;
+    }
+
+    public void finishExport() {
+        permits.release();
+    }
+
+    /**
+     * Writes the archive of an owner to the stream without closing it. Call on
+     * the owner's shard, between {@link #tryStartExport} and {@link #finishExport}.
+     */
+    public void writeArchive(String ownerEmail, OutputStream out) throws IOException {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out));
+            Map<String, Long> counts = new LinkedHashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    counts.put("pets.json", writeTable(zip, "pets.json", PETS_SQL, ownerEmail));
+                    counts.put("events.json", writeTable(zip, "events.json", EVENTS_SQL, ownerEmail));
+                    counts.put("vaccinations.json", writeTable(zip, "vaccinations.json", VACCINATIONS_SQL, ownerEmail));
+                    counts.put("posts.json", writeTable(zip, "posts.json", POSTS_SQL, ownerEmail));
+                    counts.put("images/pets", writeImages(zip, "images/pets/", PET_IMAGES_SQL, ownerEmail));
+                    counts.put("images/posts", writeImages(zip, "images/posts/", POST_IMAGES_SQL, ownerEmail));
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeManifest(zip, ownerEmail, counts);
+            zip.finish();
+            completed.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("active", maxConcurrent - permits.availablePermits());
+        stats.put("started", started.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("rowsWritten", rowsWritten.sum());
+        stats.put("imagesWritten", imagesWritten.sum());
+        return stats;
+    }
+
+    // Helper methods
+    // One JSON array entry with an object per row, keyed by the camel-cased column labels
+    private long writeTable(ZipOutputStream zip, String name, String sql, String ownerEmail) {
+        long[] rows = new long[1];
+        try {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(name));
+            JsonGenerator json = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(zip));
+            json.writeStartArray();
+            jdbcTemplate.query(sql, row -> {
+                try {
+                    writeRow(json, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, ownerEmail);
+            json.writeEndArray();
+            json.close();
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowsWritten.add(rows[0]);
+        return rows[0];
+    }
+
+    // Images are already compressed, so they are stored without deflating them again
+    private long writeImages(ZipOutputStream zip, String prefix, String sql, String ownerEmail) {
+        long[] images = new long[1];
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        jdbcTemplate.query(sql, row -> {
+            try (InputStream image = row.getBinaryStream(2)) {
+                zip.putNextEntry(new ZipEntry(prefix + row.getLong(1) + ".jpg"));
+                StreamUtils.copy(image, zip);
+                zip.closeEntry();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            images[0]++;
+        }, ownerEmail);
+        imagesWritten.add(images[0]);
+        return images[0];
+    }
+
+    private void writeManifest(ZipOutputStream zip, String ownerEmail, Map<String, Long> counts) throws IOException {
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(new ZipEntry("manifest.json"));
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("ownerEmail", ownerEmail);
+        manifest.put("exportedAt", LocalDateTime.now().toString());
+        manifest.put("entries", counts);
+        zip.write(objectMapper.writeValueAsBytes(manifest));
+        zip.closeEntry();
+    }
+
+    private static void writeRow(JsonGenerator json, ResultSet row) throws SQLException, IOException {
+        ResultSetMetaData metaData = row.getMetaData();
+        json.writeStartObject();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            json.writeFieldName(toFieldName(metaData.getColumnLabel(column)));
+            Object value = row.getObject(column);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Number number) {
+                json.writeNumber(number.toString());
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else if (value instanceof Date date) {
+                json.writeString(date.toLocalDate().toString());
+            } else if (value instanceof Timestamp timestamp) {
+                json.writeString(timestamp.toLocalDateTime().toString());
+            } else if (value instanceof Clob) {
+                json.writeString(row.getString(column));
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+    }
+
+    // BIRTH_DATE -> birthDate, matching the field names of the API
+    private static String toFieldName(String label) {
+        StringBuilder name = new StringBuilder(label.length());
+        boolean upper = false;
+        for (char c : label.toLowerCase().toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
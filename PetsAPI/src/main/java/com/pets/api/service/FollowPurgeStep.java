@@ -0,0 +1,44 @@
+package com.pets.api.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Removes the follows of a purged pet. Follows live on their follower's shard,
+ * so this runs on every shard.
+ */
+@Component
+@Order(1)
+public class FollowPurgeStep implements PetPurgeStep {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FollowPurgeStep(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "follows";
+    }
+
+    @Override
+    public int purgeChunk(long petId, int chunkSize) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM follows WHERE pet_id = ? LIMIT ?", Long.class, petId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM follows WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                ids.toArray());
+    }
+
+    @Override
+    public boolean runsOnEveryShard() {
+        return true;
+    }
+}
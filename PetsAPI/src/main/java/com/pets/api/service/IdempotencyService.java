@@ -0,0 +1,189 @@
+package com.pets.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of requests sent with an {@code Idempotency-Key}, so that a client
+ * retrying a create or upload gets the original response instead of a second
+ * row or a second stored image.
+ *
+ * A key is claimed when its first request starts and completed with the
+ * response once it succeeds; failed requests release the key so the client
+ * can try again. Entries expire after {@code pets.idempotency.ttl-minutes}
+ * and the store is bounded: expired entries are swept periodically and, when
+ * it is full, the oldest completed ones are evicted. Requests in progress are
+ * never evicted; when they alone fill the store new keys are refused.
+ */
+@Service
+public class IdempotencyService {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final int maxBodyBytes;
+    private final int maxHashedBodyBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder inProgress = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+
+    public IdempotencyService(@Value("${pets.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${pets.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${pets.idempotency.max-body-bytes:65536}") int maxBodyBytes,
+                              @Value("${pets.idempotency.max-hashed-body-bytes:65536}") int maxHashedBodyBytes) {
+        this.ttlMs = ttlMinutes * 60_000;
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxHashedBodyBytes = maxHashedBodyBytes;
+    }
+
+    // Largest request body fingerprinted by hashing it; larger bodies and uploads must send Content-Digest
+    public int getMaxHashedBodyBytes() {
+        return maxHashedBodyBytes;
+    }
+
+    /**
+     * Claims the key for a new request, or reports why it cannot run: the
+     * stored response of an earlier identical request, a request still in
+     * progress, a different request that reused the key, or a full store.
+     */
+    public Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            evict();
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                refused.increment();
+                return new Claim(Status.FULL, null, null);
+            }
+        }
+        Entry claimed = new Entry(fingerprint, now + ttlMs);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, claimed);
+            if (existing == null) {
+                started.increment();
+                return new Claim(Status.STARTED, claimed, null);
+            }
+            if (existing.expiresAt <= now) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                mismatched.increment();
+                return new Claim(Status.MISMATCH, null, null);
+            }
+            StoredResponse response = existing.response;
+            if (response == null) {
+                inProgress.increment();
+                return new Claim(Status.IN_PROGRESS, null, null);
+            }
+            replayed.increment();
+            return new Claim(Status.REPLAY, null, response);
+        }
+    }
+
+    // Stores the response of a claimed request; responses too large to keep release the key instead
+    public void complete(String key, Entry entry, StoredResponse response) {
+        if (response.body().length > maxBodyBytes) {
+            release(key, entry);
+            return;
+        }
+        entry.response = response;
+    }
+
+    public void release(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    @Scheduled(fixedDelayString = "${pets.idempotency.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("started", started.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("inProgress", inProgress.sum());
+        stats.put("mismatched", mismatched.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("refused", refused.sum());
+        return stats;
+    }
+
+    // Helper methods
+    // Drops expired entries and, if still full, the oldest tenth of the completed ones;
+    // only one thread evicts at a time and the rest keep going
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictExpired();
+            if (entries.size() < maxEntries) {
+                return;
+            }
+            List<Map.Entry<String, Entry>> completed = new ArrayList<>();
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().response != null) {
+                    completed.add(entry);
+                }
+            }
+            completed.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt));
+            int toEvict = Math.max(1, maxEntries / 10);
+            for (Map.Entry<String, Entry> entry : completed.subList(0, Math.min(toEvict, completed.size()))) {
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public enum Status {
+        STARTED, REPLAY, IN_PROGRESS, MISMATCH, FULL
+    }
+
+    public record Claim(Status status, Entry entry, StoredResponse response) {
+    }
+
+    public record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final long expiresAt;
+        // Null while the first request is in progress
+        private volatile StoredResponse response;
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
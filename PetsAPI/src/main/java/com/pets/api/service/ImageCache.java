@@ -0,0 +1,415 @@
+package com.pets.api.service;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Byte-budgeted cache of image bytes held outside the Java heap.
+ *
+ * Images are stored in fixed-size pages carved out of direct {@link ByteBuffer}
+ * slabs (allocated on demand up to {@code pets.image-cache.max-bytes}) and
+ * written to the response straight from those pages. Hits are lock-free; an
+ * entry is reference counted so its pages are only reused once every response
+ * streaming it has finished. Eviction is CLOCK (an LRU approximation) and a
+ * TinyLFU frequency sketch decides whether a new image is worth more than the
+ * victim it would displace, so one-off images do not flush the hot set.
+ *
+ * Every key has an invalidation generation (striped, so it costs a fixed
+ * array). Loaders read it before reading the database and pass it to
+ * {@link #put}; bytes loaded before an {@link #invalidate} are then never
+ * cached, even when the put arrives after it.
+ *
+ * Invalidation only reaches this instance, and a load can read a lagging
+ * replica, so every entry also expires {@code pets.image-cache.ttl-seconds}
+ * after it was stored: an image replaced or deleted through another instance
+ * is served stale for at most that long.
+ */
+@Service
+public class ImageCache {
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[16 * 1024]);
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int pageBytes;
+    private final int pagesPerSlab;
+    private final int maxSlabs;
+    private final int maxEntryBytes;
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    // Keys sharing a stripe share a generation; a collision only skips a put
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    // Slabs are only appended under the lock before any page in them is published
+    // through the entries map, so readers can index the array without locking
+    private final ByteBuffer[] slabs;
+    
+    // Guarded by lock: slab count, free pages and the CLOCK queue
+    private final ReentrantLock lock = new ReentrantLock();
+    private int slabCount;
+    private int[] freePages = new int[0];
+    private int freeCount;
+    private final ArrayDeque<Entry> clock = new ArrayDeque<>();
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder admissions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ImageCache(@Value("${pets.image-cache.max-bytes:67108864}") long maxBytes,
+                      @Value("${pets.image-cache.slab-bytes:4194304}") int slabBytes,
+                      @Value("${pets.image-cache.page-bytes:16384}") int pageBytes,
+                      @Value("${pets.image-cache.max-entry-bytes:2097152}") int maxEntryBytes,
+                      @Value("${pets.image-cache.ttl-seconds:300}") long ttlSeconds) {
+        if (ttlSeconds <= 0) {
+            throw new IllegalStateException("pets.image-cache.ttl-seconds must be positive");
+        }
+        this.pageBytes = pageBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.pagesPerSlab = Math.max(1, slabBytes / pageBytes);
+        this.maxSlabs = (int) Math.max(0, maxBytes / ((long) pagesPerSlab * pageBytes));
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxSlabs * pagesPerSlab * pageBytes);
+        this.sketch = new FrequencySketch(Math.max(64, maxSlabs * pagesPerSlab));
+        this.slabs = new ByteBuffer[maxSlabs];
+    }
+
+    /**
+     * Returns the cached image acquired for the caller, who must {@link Entry#release()} it
+     * after writing, or null on a miss.
+     */
+    public Entry get(String key) {
+        sketch.increment(key);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+            if (entries.remove(key, entry)) {
+                entry.removed = true;
+                entry.release();
+                expirations.increment();
+            }
+            entry = null;
+        }
+        if (entry != null && entry.tryAcquire()) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    // Read before loading the bytes that will be offered to put
+    public long generation(String key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Offers freshly loaded bytes; the admission policy may decline them, and
+     * they are dropped if the key was invalidated since {@code generation} was read.
+     */
+    public void put(String key, byte[] data, long generation) {
+        if (data == null || data.length == 0 || data.length > maxEntryBytes || entries.containsKey(key)
+                || generation(key) != generation) {
+            return;
+        }
+        int pagesNeeded = (data.length + pageBytes - 1) / pageBytes;
+        lock.lock();
+        try {
+            if (!reservePages(pagesNeeded, sketch.frequency(key))) {
+                rejections.increment();
+                return;
+            }
+            int[] pages = new int[pagesNeeded];
+            for (int i = 0; i < pagesNeeded; i++) {
+                pages[i] = freePages[--freeCount];
+                int offset = i * pageBytes;
+                page(pages[i]).put(data, offset, Math.min(pageBytes, data.length - offset));
+            }
+            Entry entry = new Entry(key, pages, data.length, System.nanoTime() + ttlNanos);
+            Entry previous = entries.putIfAbsent(key, entry);
+            if (previous != null) {
+                releasePages(pages);
+                return;
+            }
+            clock.addLast(entry);
+            usedBytes += (long) pagesNeeded * pageBytes;
+            admissions.increment();
+            // An invalidate that ran after the check above either removed this entry or left it to us
+            if (generation(key) != generation && entries.remove(key, entry)) {
+                entry.removed = true;
+                entry.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String key) {
+        // Bumped before the removal, so a concurrent put either sees it or is removed here
+        generations.incrementAndGet(stripe(key));
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.removed = true;
+            entry.release();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        lock.lock();
+        try {
+            stats.put("usedBytes", usedBytes);
+            stats.put("allocatedBytes", (long) slabCount * pagesPerSlab * pageBytes);
+        } finally {
+            lock.unlock();
+        }
+        stats.put("maxBytes", (long) maxSlabs * pagesPerSlab * pageBytes);
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("admissions", admissions.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        return stats;
+    }
+
+    /**
+     * Writes the buffer to the stream. Tomcat's stream and streams that
+     * implement {@link ByteBufferOutput} copy directly from the buffer; any
+     * other stream goes through a small per-thread scratch array.
+     */
+    public static void write(OutputStream out, ByteBuffer buffer) throws IOException {
+        if (out instanceof CoyoteOutputStream coyote) {
+            coyote.write(buffer);
+        } else if (out instanceof ByteBufferOutput output) {
+            output.write(buffer);
+        } else {
+            byte[] scratch = SCRATCH.get();
+            while (buffer.hasRemaining()) {
+                int length = Math.min(scratch.length, buffer.remaining());
+                buffer.get(scratch, 0, length);
+                out.write(scratch, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Bytes read for the cache together with the generation read before them.
+     */
+    public record Loaded(byte[] data, long generation) {
+    }
+
+    // Helper methods
+    private static int stripe(String key) {
+        return FrequencySketch.spread(key.hashCode()) & (GENERATION_STRIPES - 1);
+    }
+
+    // Caller holds the lock. Frees pages by evicting CLOCK victims unless the candidate is
+    // no more popular than the first victim it would displace.
+    private boolean reservePages(int pagesNeeded, int candidateFrequency) {
+        while (freeCount < pagesNeeded && slabCount < maxSlabs) {
+            allocateSlab();
+        }
+        boolean admissionChecked = false;
+        while (freeCount < pagesNeeded) {
+            Entry victim = clock.pollFirst();
+            if (victim == null) {
+                return false;
+            }
+            if (victim.removed) {
+                continue;
+            }
+            if (victim.referenced) {
+                victim.referenced = false;
+                clock.addLast(victim);
+                continue;
+            }
+            if (!admissionChecked) {
+                admissionChecked = true;
+                if (candidateFrequency <= sketch.frequency(victim.key)) {
+                    clock.addFirst(victim);
+                    return false;
+                }
+            }
+            if (entries.remove(victim.key, victim)) {
+                victim.removed = true;
+                victim.release();
+                evictions.increment();
+            }
+        }
+        return true;
+    }
+
+    private void allocateSlab() {
+        int slab = slabCount++;
+        slabs[slab] = ByteBuffer.allocateDirect(pagesPerSlab * pageBytes);
+        if (freePages.length < freeCount + pagesPerSlab) {
+            int[] grown = new int[maxSlabs * pagesPerSlab];
+            System.arraycopy(freePages, 0, grown, 0, freeCount);
+            freePages = grown;
+        }
+        for (int i = pagesPerSlab - 1; i >= 0; i--) {
+            freePages[freeCount++] = slab * pagesPerSlab + i;
+        }
+    }
+
+    private void releasePages(int[] pages) {
+        lock.lock();
+        try {
+            for (int page : pages) {
+                freePages[freeCount++] = page;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Independent view of one page; slab buffers themselves are never repositioned
+    private ByteBuffer page(int page) {
+        ByteBuffer view = slabs[page / pagesPerSlab].duplicate();
+        int offset = (page % pagesPerSlab) * pageBytes;
+        view.limit(offset + pageBytes).position(offset);
+        return view;
+    }
+
+    /**
+     * Streams that can take a {@link ByteBuffer} without an intermediate heap copy.
+     */
+    public interface ByteBufferOutput {
+
+        void write(ByteBuffer buffer) throws IOException;
+    }
+
+    public final class Entry {
+
+        private final String key;
+        private final int[] pages;
+        private final int length;
+        private final long expiresAt;
+        // One reference held by the cache itself plus one per response being written
+        private final AtomicInteger references = new AtomicInteger(1);
+        private volatile boolean referenced;
+        private volatile boolean removed;
+
+        private Entry(String key, int[] pages, int length, long expiresAt) {
+            this.key = key;
+            this.pages = pages;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            int remaining = length;
+            for (int page : pages) {
+                ByteBuffer view = page(page);
+                view.limit(view.position() + Math.min(pageBytes, remaining));
+                remaining -= view.remaining();
+                write(out, view);
+            }
+        }
+
+        public void release() {
+            if (references.decrementAndGet() == 0) {
+                lock.lock();
+                try {
+                    usedBytes -= (long) pages.length * pageBytes;
+                } finally {
+                    lock.unlock();
+                }
+                releasePages(pages);
+            }
+        }
+
+        private boolean tryAcquire() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    // Count-min sketch of recent access frequency (4 rows); counters are halved
+    // periodically so popularity decays
+    private static class FrequencySketch {
+
+        private static final int ROWS = 4;
+
+        private final AtomicIntegerArray counters;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(Math.max(16, expectedEntries * 4) - 1) << 1;
+            this.counters = new AtomicIntegerArray(width * ROWS);
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            for (int row = 0; row < ROWS; row++) {
+                counters.incrementAndGet(index(hash, row));
+            }
+            if (additions.incrementAndGet() >= sampleSize) {
+                additions.set(0);
+                for (int i = 0; i < counters.length(); i++) {
+                    counters.set(i, counters.get(i) >>> 1);
+                }
+            }
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < ROWS; row++) {
+                frequency = Math.min(frequency, counters.get(index(hash, row)));
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int rowHash = spread(hash + row * 0x9E3779B9);
+            return row * (mask + 1) + (rowHash & mask);
+        }
+
+        private static int spread(int x) {
+            x ^= x >>> 16;
+            x *= 0x45d9f3b;
+            x ^= x >>> 16;
+            return x;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.pets.api.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues and verifies owner JWTs (HS256, subject = owner email).
+ *
+ * The signing key and parser are built once. Verified tokens are cached by the
+ * SHA-256 of the token until their own {@code exp}, so repeated requests with
+ * the same token skip signature verification and claims parsing. The cache is
+ * bounded: expired entries are swept periodically and, when it is full, the
+ * entries closest to expiry are evicted first.
+ */
+@Service
+public class JwtTokenService {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtTokenService(@Value("${pets.security.jwt.secret:}") String secret,
+                           @Value("${pets.security.jwt.ttl-minutes:60}") long ttlMinutes,
+                           @Value("${pets.security.jwt.clock-skew-seconds:30}") long clockSkewSeconds,
+                           @Value("${pets.security.jwt.cache-size:10000}") int maxEntries) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        // There is no built-in default: HS256 needs a key of at least 256 bits
+        if (secret.isBlank() || secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("pets.security.jwt.secret (PETS_JWT_SECRET) must be set to at least "
+                    + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = Keys.hmacShaKeyFor(secretBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setAllowedClockSkewSeconds(clockSkewSeconds)
+                .build();
+        this.ttlMs = ttlMinutes * 60_000;
+        this.maxEntries = maxEntries;
+    }
+
+    public String issueToken(String ownerEmail) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(ownerEmail.trim().toLowerCase())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMs))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Returns the owner email bound to the token, verifying it only on a cache miss.
+     *
+     * @throws JwtException if the token is malformed, has a bad signature or has expired
+     */
+    public String authenticate(String token) {
+        String cacheKey = hash(token);
+        VerifiedToken cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return cached.ownerEmail();
+            }
+            cache.remove(cacheKey, cached);
+        }
+        misses.increment();
+
+        Claims claims = parse(token);
+        if (cache.size() >= maxEntries) {
+            evict();
+        }
+        if (claims.getExpiration() != null) {
+            cache.put(cacheKey, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+        }
+        return claims.getSubject();
+    }
+
+    /**
+     * Verifies the token without consulting the cache.
+     */
+    public String verify(String token) {
+        return parse(token).getSubject();
+    }
+
+    @Scheduled(fixedDelayString = "${pets.security.jwt.cache-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    // Helper methods
+    private Claims parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getSubject().isBlank()) {
+                throw new JwtException("El token no tiene dueño");
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.increment();
+            throw e instanceof JwtException jwtException ? jwtException : new JwtException(e.getMessage(), e);
+        }
+    }
+
+    // Drops expired entries and, if still full, the tenth of the cache closest to expiry;
+    // only one thread evicts at a time and the rest keep going
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictExpired();
+            if (cache.size() < maxEntries) {
+                return;
+            }
+            List<Map.Entry<String, VerifiedToken>> entries = new ArrayList<>(cache.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt()));
+            int toEvict = Math.max(1, maxEntries / 10);
+            for (Map.Entry<String, VerifiedToken> entry : entries.subList(0, Math.min(toEvict, entries.size()))) {
+                if (cache.remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private record VerifiedToken(String ownerEmail, long expiresAt) {
+    }
+}
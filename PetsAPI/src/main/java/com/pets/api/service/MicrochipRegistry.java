@@ -0,0 +1,225 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over every registered microchip number, so scans of
+ * unregistered chips are answered without touching the database.
+ *
+ * Numbers are added from the pet write paths. Bloom filters cannot remove, so
+ * deleted or changed chips stay as (harmless) false positives; once
+ * {@code pets.microchip.max-stale} of them pile up, and at startup and
+ * periodically, the filter is rebuilt from the database. Writes that race with
+ * a rebuild go to both the old and the new filter; adds and the start and swap
+ * of a rebuild share a lock, so every add lands in the filter that is in use
+ * once the rebuild ends. Adds run after their write has committed, so those
+ * made before the rebuild starts are found by its scan.
+ */
+@Service
+public class MicrochipRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MicrochipRegistry.class);
+
+    private final PetRepository petRepository;
+    private final ShardRouter shardRouter;
+    private final long expectedChips;
+    private final double falsePositiveRate;
+    private final long maxStale;
+
+    private final Object swapLock = new Object();
+    private volatile BloomFilter filter;
+    private BloomFilter rebuilding;
+    private volatile boolean ready;
+    private final LongAdder staleChips = new LongAdder();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public MicrochipRegistry(PetRepository petRepository,
+                             ShardRouter shardRouter,
+                             @Value("${pets.microchip.expected-chips:1000000}") long expectedChips,
+                             @Value("${pets.microchip.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${pets.microchip.max-stale:10000}") long maxStale) {
+        this.petRepository = petRepository;
+        this.shardRouter = shardRouter;
+        this.expectedChips = expectedChips;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxStale = maxStale;
+        this.filter = new BloomFilter(expectedChips, falsePositiveRate);
+    }
+
+    // Chip numbers are compared without spaces or dashes and in upper case; blank means no chip
+    public static String normalize(String microchipNumber) {
+        if (microchipNumber == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(microchipNumber.length());
+        for (int i = 0; i < microchipNumber.length(); i++) {
+            char c = microchipNumber.charAt(i);
+            if (!Character.isWhitespace(c) && c != '-') {
+                normalized.append(c);
+            }
+        }
+        return normalized.length() == 0 ? null : normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    public void add(String microchipNumber) {
+        if (microchipNumber == null) {
+            return;
+        }
+        synchronized (swapLock) {
+            filter.add(microchipNumber);
+            if (rebuilding != null) {
+                rebuilding.add(microchipNumber);
+            }
+        }
+    }
+
+    public void remove(String microchipNumber) {
+        if (microchipNumber == null) {
+            return;
+        }
+        staleChips.increment();
+        if (staleChips.sum() >= maxStale && rebuildScheduled.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    /**
+     * False means the chip is certainly not registered. Until the first rebuild
+     * has finished every chip is reported as possibly registered.
+     */
+    public boolean mightBeRegistered(String microchipNumber) {
+        if (ready && !filter.mightContain(microchipNumber)) {
+            negatives.increment();
+            return false;
+        }
+        positives.increment();
+        return true;
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${pets.microchip.rebuild-ms:3600000}",
+            fixedDelayString = "${pets.microchip.rebuild-ms:3600000}")
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedChips, falsePositiveRate);
+        synchronized (swapLock) {
+            rebuilding = next;
+        }
+        staleChips.reset();
+        try {
+            long count = 0;
+            for (String microchipNumber : shardRouter.scatter(petRepository::findAllMicrochipNumbers)) {
+                next.add(microchipNumber);
+                count++;
+            }
+            synchronized (swapLock) {
+                filter = next;
+                rebuilding = null;
+            }
+            ready = true;
+            log.info("Microchip filter rebuilt with {} chips", count);
+        } finally {
+            synchronized (swapLock) {
+                rebuilding = null;
+            }
+            rebuildScheduled.set(false);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("bits", filter.bitCount);
+        stats.put("hashFunctions", filter.hashFunctions);
+        stats.put("staleChips", staleChips.sum());
+        stats.put("negatives", negatives.sum());
+        stats.put("positives", positives.sum());
+        stats.put("falsePositives", falsePositives.sum());
+        return stats;
+    }
+
+    private static class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashFunctions;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (optimalBits + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a with a final avalanche mix; the two halves seed double hashing
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.Pet;
+import com.pets.api.model.PetSpecies;
+import com.pets.api.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Species and breed facet counts, globally and per owner.
+ *
+ * Counters are adjusted from the pet write paths, so reading facets never
+ * touches the database. A periodic reconciliation rebuilds them from a single
+ * {@code GROUP BY} to repair any drift (e.g. writes made outside the API).
+ * Adjustments made while it runs are journaled and replayed onto the rebuilt
+ * counters when they are swapped in, so concurrent writes are not lost.
+ * Owners are keyed by their trimmed, lower-cased email, as they are matched
+ * everywhere else.
+ *
+ * Top breeds are selected per request with a heap of {@code topBreeds}
+ * entries: the cost is linear in the number of distinct breeds counted (one
+ * owner's handful, or the catalogue of breeds globally), not in pets.
+ */
+@Service
+public class PetFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(PetFacetService.class);
+
+    private final PetRepository petRepository;
+    private final ShardRouter shardRouter;
+
+    private volatile FacetCounts global = new FacetCounts();
+    private volatile Map<String, FacetCounts> byOwner = new ConcurrentHashMap<>();
+
+    // Adjustments share the read side; the write side only covers starting the journal and the swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Non-null while a reconciliation is running; guarded by swapLock
+    private Queue<Adjustment> journal;
+
+    public PetFacetService(PetRepository petRepository, ShardRouter shardRouter) {
+        this.petRepository = petRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    public void onCreated(Pet pet) {
+        adjust(pet.getOwnerEmail(), pet.getSpecies(), pet.getBreed(), 1);
+    }
+
+    public void onUpdated(String oldOwnerEmail, PetSpecies oldSpecies, String oldBreed, Pet pet) {
+        adjust(oldOwnerEmail, oldSpecies, oldBreed, -1);
+        adjust(pet.getOwnerEmail(), pet.getSpecies(), pet.getBreed(), 1);
+    }
+
+    public void onDeleted(Pet pet) {
+        adjust(pet.getOwnerEmail(), pet.getSpecies(), pet.getBreed(), -1);
+    }
+
+    public Map<String, Object> getFacets(String ownerEmail, int topBreeds) {
+        FacetCounts counts = ownerEmail == null ? global : byOwner.get(ownerKey(ownerEmail));
+        return (counts == null ? new FacetCounts() : counts).toMap(topBreeds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${pets.facets.reconcile-ms:600000}",
+            fixedDelayString = "${pets.facets.reconcile-ms:600000}")
+    public synchronized void reconcile() {
+        swapLock.writeLock().lock();
+        try {
+            journal = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        FacetCounts rebuiltGlobal = new FacetCounts();
+        Map<String, FacetCounts> rebuiltByOwner = new ConcurrentHashMap<>();
+        for (Object[] row : shardRouter.scatter(petRepository::countFacets)) {
+            String ownerEmail = (String) row[0];
+            PetSpecies species = (PetSpecies) row[1];
+            String breed = (String) row[2];
+            long count = (Long) row[3];
+            rebuiltGlobal.add(species, breed, count);
+            if (ownerEmail != null) {
+                // Emails differing only in case or spaces come as separate groups and add up under one key
+                rebuiltByOwner.computeIfAbsent(ownerKey(ownerEmail), owner -> new FacetCounts())
+                        .add(species, breed, count);
+            }
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            // Writes made during the scan; one committed just before it may be counted twice until the next run
+            for (Adjustment adjustment : journal) {
+                apply(rebuiltGlobal, rebuiltByOwner, adjustment.ownerEmail(), adjustment.species(),
+                        adjustment.breed(), adjustment.delta());
+            }
+            journal = null;
+            long drift = Math.abs(rebuiltGlobal.total.sum() - global.total.sum());
+            if (drift > 0) {
+                log.info("Facet reconciliation repaired a drift of {} pets", drift);
+            }
+            global = rebuiltGlobal;
+            byOwner = rebuiltByOwner;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // Helper methods
+    private void adjust(String ownerEmail, PetSpecies species, String breed, long delta) {
+        swapLock.readLock().lock();
+        try {
+            apply(global, byOwner, ownerEmail, species, breed, delta);
+            if (journal != null) {
+                journal.add(new Adjustment(ownerEmail, species, breed, delta));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void apply(FacetCounts global, Map<String, FacetCounts> byOwner,
+                              String ownerEmail, PetSpecies species, String breed, long delta) {
+        global.add(species, breed, delta);
+        if (ownerEmail != null) {
+            byOwner.computeIfAbsent(ownerKey(ownerEmail), owner -> new FacetCounts()).add(species, breed, delta);
+        }
+    }
+
+    private static String ownerKey(String ownerEmail) {
+        return ownerEmail.trim().toLowerCase();
+    }
+
+    private record Adjustment(String ownerEmail, PetSpecies species, String breed, long delta) {
+    }
+
+    private static class FacetCounts {
+
+        private final LongAdder total = new LongAdder();
+        private final Map<PetSpecies, LongAdder> species = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> breeds = new ConcurrentHashMap<>();
+
+        void add(PetSpecies petSpecies, String breed, long delta) {
+            total.add(delta);
+            if (petSpecies != null) {
+                species.computeIfAbsent(petSpecies, s -> new LongAdder()).add(delta);
+            }
+            if (breed != null) {
+                breeds.computeIfAbsent(breed.trim(), b -> new LongAdder()).add(delta);
+            }
+        }
+
+        Map<String, Object> toMap(int topBreeds) {
+            Map<String, Long> speciesCounts = new LinkedHashMap<>();
+            for (PetSpecies petSpecies : PetSpecies.values()) {
+                LongAdder count = species.get(petSpecies);
+                speciesCounts.put(petSpecies.name(), count == null ? 0L : count.sum());
+            }
+
+            // Min-heap of the best topBreeds so far: O(breeds * log topBreeds), no full sort
+            PriorityQueue<Map.Entry<String, Long>> best = new PriorityQueue<>(Math.max(1, topBreeds + 1),
+                    Map.Entry.comparingByValue());
+            if (topBreeds > 0) {
+                breeds.forEach((breed, count) -> {
+                    long sum = count.sum();
+                    if (sum > 0) {
+                        best.offer(Map.entry(breed, sum));
+                        if (best.size() > topBreeds) {
+                            best.poll();
+                        }
+                    }
+                });
+            }
+            List<Map.Entry<String, Long>> breedCounts = new ArrayList<>(best);
+            breedCounts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+
+            List<Map<String, Object>> top = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : breedCounts) {
+                Map<String, Object> breed = new LinkedHashMap<>();
+                breed.put("breed", entry.getKey());
+                breed.put("count", entry.getValue());
+                top.add(breed);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", total.sum());
+            result.put("species", speciesCounts);
+            result.put("topBreeds", top);
+            return result;
+        }
+    }
+}
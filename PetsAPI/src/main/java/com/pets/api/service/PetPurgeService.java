@@ -0,0 +1,232 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.Event;
+import com.pets.api.model.Pet;
+import com.pets.api.model.Post;
+import com.pets.api.model.Vaccination;
+import com.pets.api.repository.PetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Set-based pet deletion.
+ *
+ * Deleting marks the pet with {@code deleted_at} (hidden from every pet query
+ * by {@code @SQLRestriction}) and returns immediately. A background job then
+ * purges each deleted pet with bulk SQL in bounded chunks, one short
+ * transaction per chunk, in dependency order: likes the pet gave and
+ * cross-shard plug-in steps (on every shard), the remaining plug-in
+ * {@link PetPurgeStep}s, likes on its posts and the posts, events,
+ * vaccinations and finally the pet row. Nothing is loaded into the
+ * persistence context; purged rows are evicted from the second-level cache
+ * (and purged posts from the image cache and trending ranking) after each
+ * commit.
+ */
+@Service
+public class PetPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PetPurgeService.class);
+
+    private static final String POST_LIKES_ROLE = Post.class.getName() + ".likes";
+
+    private final PetRepository petRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<PetPurgeStep> pluginSteps;
+    private final ImageCache imageCache;
+    private final TrendingService trendingService;
+    private final PetStatsService statsService;
+    private final int chunkSize;
+    private final int petsPerRun;
+
+    private final LongAdder softDeleted = new LongAdder();
+    private final LongAdder purgedPets = new LongAdder();
+    private final LongAdder purgedRows = new LongAdder();
+
+    public PetPurgeService(PetRepository petRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           ShardRouter shardRouter,
+                           EntityManagerFactory entityManagerFactory,
+                           ObjectProvider<PetPurgeStep> pluginSteps,
+                           ImageCache imageCache,
+                           TrendingService trendingService,
+                           PetStatsService statsService,
+                           @Value("${pets.purge.chunk-size:500}") int chunkSize,
+                           @Value("${pets.purge.pets-per-run:20}") int petsPerRun) {
+        this.petRepository = petRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pluginSteps = pluginSteps;
+        this.imageCache = imageCache;
+        this.trendingService = trendingService;
+        this.statsService = statsService;
+        this.chunkSize = chunkSize;
+        this.petsPerRun = petsPerRun;
+    }
+
+    // Marks the pet deleted; its microchip is released right away so it can be registered again
+    public Pet softDelete(Pet pet) {
+        pet.setDeletedAt(LocalDateTime.now());
+        pet.setMicrochipNumber(null);
+        Pet deleted = petRepository.save(pet);
+        entityManagerFactory.getCache().evict(Pet.class, pet.getId());
+        softDeleted.increment();
+        return deleted;
+    }
+
+    @Scheduled(initialDelayString = "${pets.purge.interval-ms:5000}",
+            fixedDelayString = "${pets.purge.interval-ms:5000}")
+    public void purgeDeletedPets() {
+        shardRouter.forEachShard(() -> {
+            List<Long> petIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM pets WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?", Long.class, petsPerRun);
+            for (Long petId : petIds) {
+                try {
+                    purgePet(petId);
+                } catch (RuntimeException e) {
+                    // Left marked as deleted; the next run continues where this one stopped
+                    log.error("Purge of pet {} failed", petId, e);
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("softDeleted", softDeleted.sum());
+        stats.put("purgedPets", purgedPets.sum());
+        stats.put("purgedRows", purgedRows.sum());
+        stats.put("pendingPets", shardRouter.scatter(() -> Collections.singletonList(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pets WHERE deleted_at IS NOT NULL", Long.class)))
+                .stream().mapToLong(Long::longValue).sum());
+        return stats;
+    }
+
+    // Helper methods
+    private void purgePet(long petId) {
+        Integer shard = shardRouter.getCurrentShard();
+        shardRouter.forEachShard(() -> {
+            purgeInChunks(() -> purgeLikesGivenChunk(petId));
+            pluginSteps.orderedStream().filter(PetPurgeStep::runsOnEveryShard)
+                    .forEach(step -> purgeInChunks(() -> step.purgeChunk(petId, chunkSize)));
+        });
+        shardRouter.runOnShard(shard, () -> {
+            pluginSteps.orderedStream().filter(step -> !step.runsOnEveryShard())
+                    .forEach(step -> purgeInChunks(() -> step.purgeChunk(petId, chunkSize)));
+            purgeInChunks(() -> purgePostsChunk(petId));
+            purgeInChunks(() -> purgeChildrenChunk("events", Event.class, petId));
+            purgeInChunks(() -> purgeChildrenChunk("vaccinations", Vaccination.class, petId));
+            transactionTemplate.executeWithoutResult(tx -> {
+                purgedRows.add(jdbcTemplate.update("DELETE FROM pets WHERE id = ? AND deleted_at IS NOT NULL", petId));
+                afterCommit(() -> {
+                    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+                    sessionFactory.getCache().evictEntityData(Pet.class, petId);
+                    sessionFactory.getCache().evictCollectionData(Pet.class.getName() + ".posts", petId);
+                    sessionFactory.getCache().evictCollectionData(Pet.class.getName() + ".events", petId);
+                    sessionFactory.getCache().evictCollectionData(Pet.class.getName() + ".vaccinations", petId);
+                });
+            });
+        });
+        purgedPets.increment();
+    }
+
+    private void purgeInChunks(IntSupplier chunk) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(tx -> chunk.getAsInt());
+            purgedRows.add(deleted);
+        } while (deleted > 0);
+    }
+
+    private int purgeLikesGivenChunk(long petId) {
+        List<Long> postIds = jdbcTemplate.queryForList(
+                "SELECT post_id FROM post_likes WHERE pet_id = ? LIMIT ?", Long.class, petId, chunkSize);
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(postIds.size() + 1);
+        args.add(petId);
+        args.addAll(postIds);
+        String in = placeholders(postIds.size());
+        // The liked pets lose these likes from their stats in the same transaction
+        List<long[]> likesByPet = jdbcTemplate.query("SELECT po.pet_id, COUNT(*) FROM post_likes l JOIN posts po ON po.id = l.post_id "
+                        + "WHERE l.pet_id = ? AND l.post_id IN (" + in + ") AND po.status = 'READY' GROUP BY po.pet_id",
+                (row, rowNum) -> new long[] {row.getLong(1), row.getLong(2)}, args.toArray());
+        likesByPet.forEach(likes -> statsService.adjust(likes[0], 0, (int) -likes[1], 0, 0));
+        int deleted = jdbcTemplate.update("DELETE FROM post_likes WHERE pet_id = ? AND post_id IN (" + in + ")",
+                args.toArray());
+        afterCommit(() -> postIds.forEach(postId -> evictCollection(POST_LIKES_ROLE, postId)));
+        return deleted;
+    }
+
+    private int purgePostsChunk(long petId) {
+        List<Long> postIds = jdbcTemplate.queryForList(
+                "SELECT id FROM posts WHERE pet_id = ? LIMIT ?", Long.class, petId, chunkSize);
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        String in = placeholders(postIds.size());
+        int deleted = jdbcTemplate.update("DELETE FROM post_likes WHERE post_id IN (" + in + ")", postIds.toArray());
+        deleted += jdbcTemplate.update("DELETE FROM posts WHERE id IN (" + in + ")", postIds.toArray());
+        afterCommit(() -> postIds.forEach(postId -> {
+            entityManagerFactory.getCache().evict(Post.class, postId);
+            evictCollection(POST_LIKES_ROLE, postId);
+            imageCache.invalidate("post:" + postId);
+            trendingService.remove(postId);
+        }));
+        return deleted;
+    }
+
+    private int purgeChildrenChunk(String table, Class<?> entityClass, long petId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE pet_id = ? LIMIT ?", Long.class, petId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE id IN (" + placeholders(ids.size()) + ")", ids.toArray());
+        afterCommit(() -> ids.forEach(id -> entityManagerFactory.getCache().evict(entityClass, id)));
+        return deleted;
+    }
+
+    private void evictCollection(String role, Long ownerId) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(role, ownerId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.pets.api.service;
+
+/**
+ * One table in the background purge of a deleted pet. Steps are beans so
+ * features that keep per-pet rows elsewhere can plug in; they run, in
+ * {@code @Order}, before the built-in post, event and vaccination steps.
+ */
+public interface PetPurgeStep {
+
+    String getName();
+
+    /**
+     * Deletes at most {@code chunkSize} rows belonging to the pet on the
+     * current shard and returns how many were deleted; 0 means done.
+     */
+    int purgeChunk(long petId, int chunkSize);
+
+    /**
+     * Whether the pet's rows can live on any shard (for example rows keyed by
+     * another owner), in which case the step runs on every shard instead of
+     * only the pet's.
+     */
+    default boolean runsOnEveryShard() {
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pets.api.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes a purged pet's stats row.
+ */
+@Component
+@Order(3)
+public class PetStatsPurgeStep implements PetPurgeStep {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PetStatsPurgeStep(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "pet_stats";
+    }
+
+    @Override
+    public int purgeChunk(long petId, int chunkSize) {
+        return jdbcTemplate.update("DELETE FROM pet_stats WHERE pet_id = ?", petId);
+    }
+}
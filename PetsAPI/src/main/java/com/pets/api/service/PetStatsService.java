@@ -0,0 +1,191 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.PetStats;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.repository.PetStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-pet profile counters (posts, likes received, upcoming events, overdue
+ * vaccinations) served with one primary-key read.
+ *
+ * Writers adjust the counters with {@link #adjust} inside the transaction of
+ * the write itself. Rows are created with the pet, or on first read for pets
+ * that predate them. The last two counters also change as days pass, so a
+ * nightly job recomputes every pet from the source tables and repairs any row
+ * that drifted, under a row lock so concurrent adjustments are not lost.
+ */
+@Service
+public class PetStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PetStatsService.class);
+
+    // One row per pet: expected counters from the source tables, then the stored ones (null if missing)
+    private static final String RECOMPUTE_SQL = "SELECT p.id, "
+            + "(SELECT COUNT(*) FROM posts po WHERE po.pet_id = p.id AND po.status = 'READY'), "
+            + "(SELECT COUNT(*) FROM post_likes l JOIN posts po ON po.id = l.post_id WHERE po.pet_id = p.id AND po.status = 'READY'), "
+            + "(SELECT COUNT(*) FROM events e WHERE e.pet_id = p.id AND e.series_end >= ?), "
+            + "(SELECT COUNT(*) FROM vaccinations v WHERE v.pet_id = p.id AND v.next_due_date < ?), "
+            + "s.post_count, s.likes_received, s.upcoming_events, s.overdue_vaccinations "
+            + "FROM pets p LEFT JOIN pet_stats s ON s.pet_id = p.id WHERE p.deleted_at IS NULL ";
+
+    private final PetStatsRepository statsRepository;
+    private final PetRepository petRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+
+    private final LongAdder adjustments = new LongAdder();
+    private final LongAdder missingRows = new LongAdder();
+    private final LongAdder createdOnRead = new LongAdder();
+    private final LongAdder checkedPets = new LongAdder();
+    private final LongAdder repairedPets = new LongAdder();
+    private final AtomicReference<LocalDateTime> lastReconciliation = new AtomicReference<>();
+
+    public PetStatsService(PetStatsRepository statsRepository,
+                           PetRepository petRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           ShardRouter shardRouter,
+                           @Value("${pets.stats.reconcile-chunk-size:500}") int chunkSize) {
+        this.statsRepository = statsRepository;
+        this.petRepository = petRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+    }
+
+    // Called on the pet's shard right after the pet is created
+    public void createFor(Long petId) {
+        try {
+            jdbcTemplate.update("INSERT INTO pet_stats (pet_id, post_count, likes_received, upcoming_events, "
+                    + "overdue_vaccinations, updated_at) VALUES (?, 0, 0, 0, 0, ?)", petId, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // Already created by a concurrent read
+        }
+    }
+
+    /**
+     * Applies counter deltas for a pet. Call on the pet's shard, inside the
+     * transaction of the write being counted. A missing row is left alone; it
+     * is computed from the source tables when first read.
+     */
+    public void adjust(Long petId, int posts, int likes, int events, int vaccinations) {
+        if (posts == 0 && likes == 0 && events == 0 && vaccinations == 0) {
+            return;
+        }
+        if (statsRepository.adjust(petId, posts, likes, events, vaccinations) == 0) {
+            missingRows.increment();
+        }
+        adjustments.increment();
+    }
+
+    // Must run on the pet's shard; empty if the pet does not exist
+    public Optional<PetStats> getStats(Long petId) {
+        Optional<PetStats> stats = statsRepository.findById(petId);
+        if (stats.isPresent() || !petRepository.existsById(petId)) {
+            return stats;
+        }
+        repair(petId);
+        createdOnRead.increment();
+        return statsRepository.findById(petId);
+    }
+
+    // Recomputes every pet just after midnight, when upcoming events and overdue vaccinations roll over
+    @Scheduled(cron = "${pets.stats.reconcile-cron:0 5 0 * * *}")
+    public void reconcile() {
+        shardRouter.forEachShard(() -> {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                LocalDate today = LocalDate.now();
+                rows = jdbcTemplate.query(RECOMPUTE_SQL + "AND p.id > ? ORDER BY p.id LIMIT ?",
+                        (row, rowNum) -> new Object[] {row.getLong(1), isDrifted(row)},
+                        Date.valueOf(today), Date.valueOf(today), afterId, chunkSize);
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    checkedPets.increment();
+                    // Rows not created yet are filled on first read
+                    if (Boolean.TRUE.equals(row[1])) {
+                        repair(afterId);
+                        repairedPets.increment();
+                    }
+                }
+            } while (rows.size() == chunkSize);
+        });
+        lastReconciliation.set(LocalDateTime.now());
+        log.info("Pet stats reconciled: {} pets checked and {} repaired in total", checkedPets.sum(), repairedPets.sum());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("adjustments", adjustments.sum());
+        stats.put("missingRows", missingRows.sum());
+        stats.put("createdOnRead", createdOnRead.sum());
+        stats.put("checkedPets", checkedPets.sum());
+        stats.put("repairedPets", repairedPets.sum());
+        stats.put("lastReconciliation", lastReconciliation.get());
+        return stats;
+    }
+
+    // Helper methods
+    private static Boolean isDrifted(ResultSet row) throws SQLException {
+        row.getLong(6);
+        if (row.wasNull()) {
+            return null;
+        }
+        return row.getLong(2) != row.getLong(6) || row.getLong(3) != row.getLong(7)
+                || row.getLong(4) != row.getLong(8) || row.getLong(5) != row.getLong(9);
+    }
+
+    // Rewrites one pet's row from the source tables while holding its row lock
+    private void repair(Long petId) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.queryForList("SELECT pet_id FROM pet_stats WHERE pet_id = ? FOR UPDATE", Long.class, petId);
+                LocalDate today = LocalDate.now();
+                List<long[]> expected = jdbcTemplate.query(RECOMPUTE_SQL + "AND p.id = ?",
+                        (row, rowNum) -> new long[] {row.getLong(2), row.getLong(3), row.getLong(4), row.getLong(5)},
+                        Date.valueOf(today), Date.valueOf(today), petId);
+                if (expected.isEmpty()) {
+                    return;
+                }
+                long[] counts = expected.get(0);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                int updated = jdbcTemplate.update("UPDATE pet_stats SET post_count = ?, likes_received = ?, upcoming_events = ?, "
+                        + "overdue_vaccinations = ?, updated_at = ? WHERE pet_id = ?",
+                        counts[0], counts[1], counts[2], counts[3], now, petId);
+                if (updated == 0) {
+                    jdbcTemplate.update("INSERT INTO pet_stats (pet_id, post_count, likes_received, upcoming_events, "
+                            + "overdue_vaccinations, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                            petId, counts[0], counts[1], counts[2], counts[3], now);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Inserted concurrently; that row was computed from the same source tables
+        }
+    }
+}
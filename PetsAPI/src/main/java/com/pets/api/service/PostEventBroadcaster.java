@@ -0,0 +1,364 @@
+package com.pets.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pets.api.model.Post;
+import com.pets.api.model.PostStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Push channel (Server-Sent Events) for like counts and new posts.
+ *
+ * Connections are held as async requests, so no Tomcat worker stays busy per
+ * subscriber; all writes happen on a small dedicated pool and are
+ * non-blocking: a drain writes while the socket accepts data and otherwise
+ * stops until the container reports it writable again, so a slow client never
+ * holds a push thread. Heartbeats go through the same drain. A subscriber that
+ * stays unwritable for {@code pets.stream.send-timeout-ms} is dropped. Each
+ * subscriber has a bounded buffer: like counts are coalesced per post (only the
+ * latest count is kept) while post and status events drop the oldest entry on overflow.
+ */
+@Service
+public class PostEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(PostEventBroadcaster.class);
+
+    private static final byte[] PING = ":ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, Set<Subscriber>> ownerSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> postSubscribers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong stalledSubscribers = new AtomicLong();
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final ScheduledExecutorService pushExecutor;
+
+    public PostEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${pets.stream.buffer-size:64}") int bufferSize,
+                                @Value("${pets.stream.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${pets.stream.threads:2}") int threads,
+                                @Value("${pets.stream.heartbeat-seconds:20}") long heartbeatSeconds,
+                                @Value("${pets.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        AtomicInteger counter = new AtomicInteger();
+        this.pushExecutor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pushExecutor.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long stallCheckMs = Math.max(1, sendTimeoutMs / 2);
+        this.pushExecutor.scheduleAtFixedRate(this::dropStalled, stallCheckMs, stallCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void subscribeToOwner(String ownerEmail, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        register(ownerSubscribers, ownerEmail, request, response);
+    }
+
+    public void subscribeToPost(Long postId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        register(postSubscribers, postId, request, response);
+    }
+
+    public void publishLikeCount(Long postId, String ownerEmail, int likeCount) {
+        forEachSubscriber(postSubscribers.get(postId), subscriber -> subscriber.offerLikeCount(postId, likeCount));
+        forEachSubscriber(ownerSubscribers.get(ownerEmail), subscriber -> subscriber.offerLikeCount(postId, likeCount));
+    }
+
+    public void publishNewPost(Post post) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", post.getId());
+        payload.put("petId", post.getPet().getId());
+        payload.put("ownerEmail", post.getPet().getOwnerEmail());
+        payload.put("createdAt", post.getCreatedAt());
+        forEachSubscriber(ownerSubscribers.get(post.getPet().getOwnerEmail()),
+                subscriber -> subscriber.offerEvent(new PendingEvent("post", payload)));
+    }
+
+    public void publishPostStatus(Long postId, String ownerEmail, PostStatus status) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", postId);
+        payload.put("status", status);
+        forEachSubscriber(ownerSubscribers.get(ownerEmail),
+                subscriber -> subscriber.offerEvent(new PendingEvent("status", payload)));
+    }
+
+    public int getSubscriberCount() {
+        int total = 0;
+        for (Set<Subscriber> subscribers : ownerSubscribers.values()) {
+            total += subscribers.size();
+        }
+        for (Set<Subscriber> subscribers : postSubscribers.values()) {
+            total += subscribers.size();
+        }
+        return total;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getStalledSubscribers() {
+        return stalledSubscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    // Helper methods
+    private <K> void register(Map<K, Set<Subscriber>> index, K key,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMs);
+
+        Consumer<Subscriber> unregister = removed -> index.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(removed);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        Subscriber subscriber = new Subscriber(async, response.getOutputStream(), unregister);
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        async.addListener(subscriber);
+        // Tomcat calls onWritePossible right away, which sends the headers
+        subscriber.out.setWriteListener(subscriber);
+    }
+
+    private void forEachSubscriber(Set<Subscriber> subscribers, Consumer<Subscriber> action) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            action.accept(subscriber);
+            subscriber.scheduleDrain();
+        }
+    }
+
+    private void heartbeat() {
+        ownerSubscribers.values().forEach(subscribers -> forEachSubscriber(subscribers, Subscriber::requestHeartbeat));
+        postSubscribers.values().forEach(subscribers -> forEachSubscriber(subscribers, Subscriber::requestHeartbeat));
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        Consumer<Subscriber> check = subscriber -> {
+            long since = subscriber.blockedSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                log.debug("Dropping SSE subscriber that accepted no data for {} ms", TimeUnit.NANOSECONDS.toMillis(now - since));
+                stalledSubscribers.incrementAndGet();
+                subscriber.close();
+            }
+        };
+        ownerSubscribers.values().forEach(subscribers -> subscribers.forEach(check));
+        postSubscribers.values().forEach(subscribers -> subscribers.forEach(check));
+    }
+
+    private byte[] frame(String name, Object payload) throws JsonProcessingException {
+        return ("event:" + name + "\ndata:" + objectMapper.writeValueAsString(payload) + "\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record PendingEvent(String name, Map<String, Object> payload) {
+    }
+
+    private class Subscriber implements WriteListener, AsyncListener {
+
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final Consumer<Subscriber> unregister;
+        private final Map<Long, Integer> pendingLikes = new ConcurrentHashMap<>();
+        private final Queue<PendingEvent> pendingEvents = new ArrayBlockingQueue<>(bufferSize);
+        // Held by the running (or scheduled) drain; a drain that stops on a full socket keeps it
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        // Set by a drain that stopped on a full socket; onWritePossible takes its place
+        private final AtomicBoolean awaitingWrite = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        // When the socket last stopped accepting data, 0 while writable
+        private volatile long blockedSince;
+
+        Subscriber(AsyncContext async, ServletOutputStream out, Consumer<Subscriber> unregister) {
+            this.async = async;
+            this.out = out;
+            this.unregister = unregister;
+        }
+
+        void offerLikeCount(Long postId, int likeCount) {
+            if (pendingLikes.size() >= bufferSize && !pendingLikes.containsKey(postId)) {
+                droppedEvents.incrementAndGet();
+                return;
+            }
+            pendingLikes.put(postId, likeCount);
+        }
+
+        void offerEvent(PendingEvent event) {
+            while (!pendingEvents.offer(event)) {
+                if (pendingEvents.poll() != null) {
+                    droppedEvents.incrementAndGet();
+                }
+            }
+        }
+
+        void requestHeartbeat() {
+            heartbeatDue = true;
+        }
+
+        void scheduleDrain() {
+            if (drainScheduled.compareAndSet(false, true)) {
+                execute();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            blockedSince = 0;
+            if (awaitingWrite.compareAndSet(true, false)) {
+                // The stopped drain handed its turn over
+                execute();
+            } else {
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.debug("Dropping SSE subscriber: {}", error.getMessage());
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed.set(true);
+            unregister.accept(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister.accept(this);
+                try {
+                    async.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+
+        private void execute() {
+            try {
+                pushExecutor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Shutting down
+                drainScheduled.set(false);
+            }
+        }
+
+        // Only one drain runs at a time. It writes while the socket accepts data; when it does not, the turn
+        // passes to onWritePossible. Otherwise the flag is cleared once idle and work that arrived meanwhile is picked up.
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    awaitingWrite.set(true);
+                    if (!out.isReady()) {
+                        if (blockedSince == 0) {
+                            blockedSince = System.nanoTime();
+                        }
+                        return;
+                    }
+                    if (!awaitingWrite.compareAndSet(true, false)) {
+                        // onWritePossible fired meanwhile and started another drain
+                        return;
+                    }
+                    byte[] message = nextMessage();
+                    if (message != null) {
+                        out.write(message);
+                        continue;
+                    }
+                    out.flush();
+                    drainScheduled.set(false);
+                    if (!hasPending() || !drainScheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                close();
+            }
+        }
+
+        private byte[] nextMessage() throws JsonProcessingException {
+            PendingEvent event = pendingEvents.poll();
+            if (event != null) {
+                return frame(event.name(), event.payload());
+            }
+            for (Map.Entry<Long, Integer> like : pendingLikes.entrySet()) {
+                // A newer count put meanwhile stays pending and goes out on the next pass
+                if (pendingLikes.remove(like.getKey(), like.getValue())) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("postId", like.getKey());
+                    payload.put("likeCount", like.getValue());
+                    return frame("like", payload);
+                }
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                return PING;
+            }
+            return null;
+        }
+
+        private boolean hasPending() {
+            return !pendingEvents.isEmpty() || !pendingLikes.isEmpty() || heartbeatDue;
+        }
+    }
+}
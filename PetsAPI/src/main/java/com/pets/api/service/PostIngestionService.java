@@ -0,0 +1,416 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.IngestLease;
+import com.pets.api.model.Pet;
+import com.pets.api.model.Post;
+import com.pets.api.model.PostStatus;
+import com.pets.api.repository.IngestLeaseRepository;
+import com.pets.api.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staged post ingestion.
+ *
+ * The request thread only spools the upload to disk and inserts the post in
+ * {@link PostStatus#PROCESSING}. Validation, decoding and the blob insert run on
+ * a bounded worker pool; when its queue is full {@link #submit} throws
+ * {@link RejectedExecutionException} so the caller can shed load. Failed
+ * attempts are retried with exponential backoff before the post is marked
+ * {@link PostStatus#FAILED}.
+ *
+ * Only the status change is retried: it applies to posts still in
+ * {@link PostStatus#PROCESSING}, and the notifications, trending and timeline
+ * updates and the spool cleanup run once after it commits.
+ *
+ * The spool is local to the node that accepted the upload, so every PROCESSING
+ * post has an {@link IngestLease} naming that node, renewed by a heartbeat.
+ * Other nodes leave the post alone while the lease is live. Once it expires
+ * (or right away for this node's own posts after a restart with the same
+ * {@code pets.ingestion.node-id}) the post is taken over: resubmitted when its
+ * spool file is on this disk, marked FAILED otherwise. Spool files from before
+ * startup that belong to no PROCESSING post are deleted.
+ */
+@Service
+public class PostIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostIngestionService.class);
+
+    private final PostRepository postRepository;
+    private final IngestLeaseRepository leaseRepository;
+    private final PostEventBroadcaster broadcaster;
+    private final TrendingService trendingService;
+    private final TimelineService timelineService;
+    private final PetStatsService statsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Path spoolDir;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final String nodeId;
+    private final long leaseMs;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final FileTime startedAt = FileTime.fromMillis(System.currentTimeMillis());
+
+    public PostIngestionService(PostRepository postRepository,
+                                IngestLeaseRepository leaseRepository,
+                                PostEventBroadcaster broadcaster,
+                                TrendingService trendingService,
+                                TimelineService timelineService,
+                                PetStatsService statsService,
+                                TransactionTemplate transactionTemplate,
+                                ShardRouter shardRouter,
+                                @Value("${pets.ingestion.threads:2}") int threads,
+                                @Value("${pets.ingestion.queue-capacity:50}") int queueCapacity,
+                                @Value("${pets.ingestion.max-attempts:3}") int maxAttempts,
+                                @Value("${pets.ingestion.retry-backoff-ms:500}") long retryBackoffMs,
+                                @Value("${pets.ingestion.spool-dir:${java.io.tmpdir}/pets-spool}") String spoolDir,
+                                @Value("${pets.ingestion.node-id:${random.uuid}}") String nodeId,
+                                @Value("${pets.ingestion.lease-ms:60000}") long leaseMs,
+                                @Value("${pets.ingestion.heartbeat-ms:15000}") long heartbeatMs)
+            throws IOException {
+        if (heartbeatMs >= leaseMs) {
+            throw new IllegalStateException("pets.ingestion.heartbeat-ms must be shorter than pets.ingestion.lease-ms");
+        }
+        this.postRepository = postRepository;
+        this.leaseRepository = leaseRepository;
+        this.broadcaster = broadcaster;
+        this.trendingService = trendingService;
+        this.timelineService = timelineService;
+        this.statsService = statsService;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.nodeId = nodeId;
+        this.leaseMs = leaseMs;
+        this.spoolDir = Files.createDirectories(Path.of(spoolDir));
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "post-ingest-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-ingest-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Post submit(Pet pet, MultipartFile image) throws IOException {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("La cola de publicación está llena");
+        }
+
+        Path upload = Files.createTempFile(spoolDir, "upload-", ".tmp");
+        try {
+            image.transferTo(upload);
+        } catch (IOException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        Post post = new Post();
+        post.setPet(pet);
+        post.setStatus(PostStatus.PROCESSING);
+        Post savedPost;
+        try {
+            // The lease commits with the post, so other nodes never see it unowned
+            savedPost = transactionTemplate.execute(tx -> {
+                Post saved = postRepository.save(post);
+                leaseRepository.save(new IngestLease(saved.getId(), nodeId, leaseUntil()));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        Long postId = savedPost.getId();
+        // Named after the post so the recovery can find it
+        Path spool;
+        try {
+            spool = Files.move(upload, spoolFile(postId));
+        } catch (IOException e) {
+            discard(postId);
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        Integer shard = shardRouter.getCurrentShard();
+        inFlight.add(postId);
+        try {
+            workers.execute(() -> process(shard, postId, spool, 1));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(postId);
+            discard(postId);
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return savedPost;
+    }
+
+    // Picks up the work a restart interrupted; files from before startup that belong to no PROCESSING post are removed
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int resumed = takeOverExpired();
+        Set<Path> processing = new HashSet<>();
+        shardRouter.forEachShard(() -> postRepository.findProcessingIds()
+                .forEach(postId -> processing.add(spoolFile(postId))));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                if (!processing.contains(file) && Files.getLastModifiedTime(file).compareTo(startedAt) < 0
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean the ingestion spool {}: {}", spoolDir, e.getMessage());
+        }
+        if (resumed > 0 || deleted > 0) {
+            log.info("Post ingestion recovery: {} posts taken over, {} orphaned spool files deleted", resumed, deleted);
+        }
+    }
+
+    // Keeps this node's leases alive and takes over posts whose node stopped renewing
+    @Scheduled(initialDelayString = "${pets.ingestion.heartbeat-ms:15000}",
+               fixedDelayString = "${pets.ingestion.heartbeat-ms:15000}")
+    public void heartbeat() {
+        LocalDateTime until = leaseUntil();
+        shardRouter.forEachShard(() -> leaseRepository.renew(nodeId, until));
+        int resumed = takeOverExpired();
+        if (resumed > 0) {
+            log.info("Took over {} posts whose ingestion lease expired", resumed);
+        }
+    }
+
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return workers.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    // Helper methods
+    private int takeOverExpired() {
+        AtomicInteger taken = new AtomicInteger();
+        shardRouter.forEachShard(() -> {
+            Integer shard = shardRouter.getCurrentShard();
+            for (Long postId : leaseRepository.findRecoverablePostIds(nodeId, LocalDateTime.now())) {
+                // Posts this node is already working on are only renewed
+                if (!inFlight.add(postId)) {
+                    continue;
+                }
+                try {
+                    if (!claim(postId)) {
+                        inFlight.remove(postId);
+                        continue;
+                    }
+                    taken.incrementAndGet();
+                    Path spool = spoolFile(postId);
+                    if (Files.exists(spool)) {
+                        resubmit(shard, postId, spool, 1);
+                    } else {
+                        log.warn("Post {} was left in PROCESSING without its upload on any live node, marking it FAILED", postId);
+                        Post failed = complete(shard, postId, null, PostStatus.FAILED);
+                        inFlight.remove(postId);
+                        if (failed != null) {
+                            publish(failed, PostStatus.FAILED);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    inFlight.remove(postId);
+                    log.warn("Could not take over the ingestion of post {}: {}", postId, e.getMessage());
+                }
+            }
+        });
+        return taken.get();
+    }
+
+    // True when this node now holds the post's lease; a post without a lease row gets one
+    private boolean claim(Long postId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.takeOver(postId, nodeId, now.plus(leaseMs, ChronoUnit.MILLIS), now) == 1) {
+            return true;
+        }
+        if (leaseRepository.existsById(postId)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(new IngestLease(postId, nodeId, leaseUntil()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted it first
+            return false;
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plus(leaseMs, ChronoUnit.MILLIS);
+    }
+
+    private void discard(Long postId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            leaseRepository.deleteById(postId);
+            postRepository.deleteById(postId);
+        });
+    }
+
+    private void process(Integer shard, Long postId, Path spool, int attempt) {
+        PostStatus status;
+        Post post;
+        try {
+            byte[] imageData = Files.readAllBytes(spool);
+            if (isDecodableImage(imageData)) {
+                status = PostStatus.READY;
+            } else {
+                log.warn("Post {} rejected: unsupported or corrupt image", postId);
+                status = PostStatus.FAILED;
+                imageData = null;
+            }
+            post = complete(shard, postId, imageData, status);
+        } catch (Exception e) {
+            if (attempt < maxAttempts) {
+                long delay = retryBackoffMs << (attempt - 1);
+                log.warn("Post {} ingestion attempt {} failed, retrying in {} ms: {}", postId, attempt, delay, e.getMessage());
+                retryScheduler.schedule(() -> resubmit(shard, postId, spool, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.error("Post {} ingestion failed after {} attempts", postId, attempt, e);
+            status = PostStatus.FAILED;
+            try {
+                post = complete(shard, postId, null, PostStatus.FAILED);
+            } catch (Exception again) {
+                // The post stays in PROCESSING with its spool file and lease; the next heartbeat retries it
+                log.error("Post {} could not be marked FAILED", postId, again);
+                inFlight.remove(postId);
+                return;
+            }
+        }
+        inFlight.remove(postId);
+        // Committed (or already finished elsewhere): nothing below is retried
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Could not delete spool file {} of post {}: {}", spool, postId, e.getMessage());
+        }
+        if (post != null) {
+            publish(post, status);
+        }
+    }
+
+    private void resubmit(Integer shard, Long postId, Path spool, int attempt) {
+        try {
+            workers.execute(() -> process(shard, postId, spool, attempt));
+        } catch (RejectedExecutionException e) {
+            retryScheduler.schedule(() -> resubmit(shard, postId, spool, attempt), retryBackoffMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Moves a PROCESSING post to its final status; null if the post is gone or was already finished
+    private Post complete(Integer shard, Long postId, byte[] imageData, PostStatus status) {
+        return shardRouter.onShard(shard, () -> transactionTemplate.execute(tx -> {
+            leaseRepository.deleteById(postId);
+            Post loaded = postRepository.findById(postId).orElse(null);
+            if (loaded == null || loaded.getStatus() != PostStatus.PROCESSING) {
+                return null;
+            }
+            loaded.setImageData(imageData);
+            loaded.setStatus(status);
+            Hibernate.initialize(loaded.getPet());
+            Post saved = postRepository.save(loaded);
+            if (status == PostStatus.READY) {
+                statsService.adjust(saved.getPet().getId(), 1, 0, 0, 0);
+            }
+            return saved;
+        }));
+    }
+
+    private void publish(Post post, PostStatus status) {
+        try {
+            broadcaster.publishPostStatus(post.getId(), post.getPet().getOwnerEmail(), status);
+            if (status == PostStatus.READY) {
+                trendingService.onPublished(post.getId(), post.getCreatedAt());
+                try {
+                    timelineService.fanOut(post);
+                } catch (RuntimeException e) {
+                    // The post stays published; followers still find it on the pet's page
+                    log.error("Timeline fan-out of post {} failed", post.getId(), e);
+                }
+                broadcaster.publishNewPost(post);
+            }
+        } catch (RuntimeException e) {
+            log.error("Notifications of post {} failed", post.getId(), e);
+        }
+    }
+
+    private Path spoolFile(Long postId) {
+        return spoolDir.resolve("post-" + postId + ".upload");
+    }
+
+    private boolean isDecodableImage(byte[] imageData) throws IOException {
+        if (imageData.length == 0) {
+            return false;
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageData))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                return reader.getWidth(0) > 0 && reader.getHeight(0) > 0;
+            } catch (IOException e) {
+                return false;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
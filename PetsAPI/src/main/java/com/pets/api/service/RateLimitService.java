@@ -0,0 +1,218 @@
+package com.pets.api.service;
+
+import com.pets.api.config.RateLimitProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets for each endpoint class.
+ *
+ * Buckets use the generic cell rate algorithm: the whole state of a bucket is
+ * one theoretical arrival time in an {@link AtomicLong}, advanced by one
+ * emission interval per admitted request with a compare-and-set. There is no
+ * lock and no refill timer; a request is admitted while the arrival time is at
+ * most {@code burst} intervals ahead of now. A bucket whose arrival time is in
+ * the past is full and indistinguishable from a missing one, so idle buckets
+ * are simply dropped by a periodic sweep and memory follows active clients.
+ *
+ * Buckets are split into segments. When {@code max-keys} is reached the request
+ * thread only schedules a background sweep, which drops idle buckets one
+ * segment at a time until the map is back under the limit; until then new
+ * clients share one overflow bucket per class (sized by
+ * {@code overflow-clients}, zero meaning they are rejected) instead of going
+ * unlimited.
+ */
+@Service
+public class RateLimitService {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+    private static final int SEGMENTS = 64;
+
+    private final Map<String, Limit> limits = new LinkedHashMap<>();
+    private final Map<String, String> endpointClasses;
+    private final int maxKeys;
+    private final int overflowClients;
+
+    private final List<Map<String, AtomicLong>> segments = new ArrayList<>(SEGMENTS);
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final AtomicInteger nextSegment = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder overflowAdmitted = new LongAdder();
+    private final LongAdder overflowRejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder pressureSweeps = new LongAdder();
+
+    public RateLimitService(RateLimitProperties properties) {
+        this.overflowClients = Math.max(0, properties.getOverflowClients());
+        properties.getClasses().forEach((name, limit) -> limits.put(name, new Limit(name, limit, overflowClients)));
+        limits.computeIfAbsent(READ, name -> new Limit(name, new RateLimitProperties.Limit(), overflowClients));
+        limits.computeIfAbsent(WRITE, name -> new Limit(name, new RateLimitProperties.Limit(), overflowClients));
+        this.endpointClasses = Map.copyOf(properties.getEndpoints());
+        this.maxKeys = properties.getMaxKeys();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    // Endpoint class of a request from its method and matched pattern
+    public String classify(String method, String pattern) {
+        String limitClass = endpointClasses.get(method + " " + pattern);
+        if (limitClass != null && limits.containsKey(limitClass)) {
+            return limitClass;
+        }
+        return "GET".equals(method) ? READ : WRITE;
+    }
+
+    /**
+     * Takes one token from the client's bucket of the given class. Returns null
+     * if the request is admitted, or the rejection with its reset hints.
+     */
+    public Rejection tryAcquire(String limitClass, String clientKey) {
+        Limit limit = limits.get(limitClass);
+        String key = limitClass + '|' + clientKey;
+        long now = System.nanoTime();
+        Map<String, AtomicLong> segment = segments.get(Math.floorMod(key.hashCode(), SEGMENTS));
+        AtomicLong arrival = segment.get(key);
+        if (arrival == null) {
+            if (bucketCount.get() >= maxKeys) {
+                scheduleEviction();
+                Rejection rejection = acquire(limit, limit.overflow, limit.overflowIntervalNanos, limit.overflowToleranceNanos, now);
+                (rejection == null ? overflowAdmitted : overflowRejected).increment();
+                return rejection;
+            }
+            arrival = segment.computeIfAbsent(key, k -> {
+                bucketCount.incrementAndGet();
+                return new AtomicLong(now);
+            });
+        }
+        return acquire(limit, arrival, limit.intervalNanos, limit.toleranceNanos, now);
+    }
+
+    // Drops full buckets; a request racing with the sweep may at most get one token back
+    @Scheduled(fixedDelayString = "${pets.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            evictIdle(segments.get(i));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buckets", bucketCount.get());
+        stats.put("maxKeys", maxKeys);
+        stats.put("overflowClients", overflowClients);
+        stats.put("overflowAdmitted", overflowAdmitted.sum());
+        stats.put("overflowRejected", overflowRejected.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("pressureSweeps", pressureSweeps.sum());
+        Map<String, Object> classes = new LinkedHashMap<>();
+        for (Limit limit : limits.values()) {
+            Map<String, Object> classStats = new LinkedHashMap<>();
+            classStats.put("ratePerSecond", limit.ratePerSecond);
+            classStats.put("burst", limit.burst);
+            classStats.put("admitted", limit.admitted.sum());
+            classStats.put("rejected", limit.rejected.sum());
+            classes.put(limit.name, classStats);
+        }
+        stats.put("classes", classes);
+        return stats;
+    }
+
+    // Helper methods
+    private static Rejection acquire(Limit limit, AtomicLong arrival, long intervalNanos, long toleranceNanos, long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > toleranceNanos) {
+                limit.rejected.increment();
+                return new Rejection(limit.burst, ahead - toleranceNanos, current - now);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                limit.admitted.increment();
+                return null;
+            }
+        }
+    }
+
+    // At most one background sweep at a time; it goes segment by segment, round robin, and
+    // stops once the map is a tenth below the limit or every segment has been visited
+    private void scheduleEviction() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        pressureSweeps.increment();
+        try {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    int target = maxKeys - Math.max(1, maxKeys / 10);
+                    for (int i = 0; i < SEGMENTS && bucketCount.get() > target; i++) {
+                        evictIdle(segments.get(Math.floorMod(nextSegment.getAndIncrement(), SEGMENTS)));
+                    }
+                } finally {
+                    evicting.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            evicting.set(false);
+            throw e;
+        }
+    }
+
+    private void evictIdle(Map<String, AtomicLong> segment) {
+        long now = System.nanoTime();
+        segment.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().get() - now <= 0;
+            if (idle) {
+                bucketCount.decrementAndGet();
+                evictions.increment();
+            }
+            return idle;
+        });
+    }
+
+    /**
+     * A rejected request: the bucket size, how long until one request would be
+     * admitted and how long until the bucket is full again.
+     */
+    public record Rejection(int burst, long retryAfterNanos, long resetNanos) {
+    }
+
+    private static final class Limit {
+
+        private final String name;
+        private final double ratePerSecond;
+        private final int burst;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        // Shared by the clients that find the map full; a negative tolerance rejects them all
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+        private final long overflowIntervalNanos;
+        private final long overflowToleranceNanos;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Limit(String name, RateLimitProperties.Limit properties, int overflowClients) {
+            this.name = name;
+            this.ratePerSecond = properties.getRatePerSecond();
+            this.burst = Math.max(1, properties.getBurst());
+            this.intervalNanos = (long) (1_000_000_000L / properties.getRatePerSecond());
+            this.toleranceNanos = intervalNanos * burst;
+            this.overflowIntervalNanos = Math.max(1, intervalNanos / Math.max(1, overflowClients));
+            this.overflowToleranceNanos = overflowClients == 0 ? -1 : overflowIntervalNanos * burst * overflowClients;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.pets.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing for hot repository reads.
+ *
+ * Concurrent loads with the same group and key share the result of the one
+ * load already in flight. Nothing is kept once that load finishes, so callers
+ * never see data older than the in-flight window. Followers wait at most
+ * {@code pets.coalescing.max-wait-ms} and then load on their own.
+ */
+@Service
+public class ReadCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, GroupStats> stats = new ConcurrentHashMap<>();
+    private final long maxWaitMs;
+
+    public ReadCoalescer(@Value("${pets.coalescing.max-wait-ms:2000}") long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V load(String group, Object key, Supplier<V> loader) {
+        GroupStats groupStats = stats.computeIfAbsent(group, g -> new GroupStats());
+        groupStats.requests.increment();
+
+        Key flightKey = new Key(group, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            groupStats.shared.increment();
+            try {
+                return (V) leader.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                groupStats.timeouts.increment();
+                return loader.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        groupStats.loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        stats.forEach((group, groupStats) -> result.put(group, groupStats.toMap()));
+        return result;
+    }
+
+    private record Key(String group, Object key) {
+    }
+
+    private static class GroupStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder shared = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        Map<String, Object> toMap() {
+            long requestCount = requests.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requestCount);
+            map.put("loads", loads.sum());
+            map.put("shared", shared.sum());
+            map.put("timeouts", timeouts.sum());
+            map.put("coalescingRatio", requestCount == 0 ? 0.0 : (double) shared.sum() / requestCount);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.pets.api.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Removes a purged pet's posts from every follower's persisted timeline. Rings
+ * already in memory skip the missing posts when they are read.
+ */
+@Component
+@Order(2)
+public class TimelinePurgeStep implements PetPurgeStep {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TimelinePurgeStep(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "timeline_entries";
+    }
+
+    @Override
+    public int purgeChunk(long petId, int chunkSize) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM timeline_entries WHERE pet_id = ? LIMIT ?", Long.class, petId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM timeline_entries WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                ids.toArray());
+    }
+
+    @Override
+    public boolean runsOnEveryShard() {
+        return true;
+    }
+}
@@ -0,0 +1,282 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.dto.PostDTO;
+import com.pets.api.model.Pet;
+import com.pets.api.model.Post;
+import com.pets.api.repository.FollowRepository;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.repository.PostRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Home timelines built by fan-out on write.
+ *
+ * When a post becomes READY its id is pushed to every follower of the pet:
+ * one batched insert into {@code timeline_entries} per follower shard. A page
+ * is one range scan of the owner's entries on the
+ * {@code (owner_email, created_at, post_id)} index, so every instance sees
+ * fan-outs done by the others. Each timeline keeps the newest
+ * {@code pets.timeline.capacity} posts; owners that received entries are
+ * trimmed one at a time in the background. Pets with at least
+ * {@code pets.timeline.celebrity-threshold} followers are not fanned out; their
+ * posts are merged in at read time instead.
+ */
+@Service
+public class TimelineService {
+
+    private static final int TRIM_BATCH = 500;
+
+    private static final Comparator<TimelineItem> NEWEST_FIRST = Comparator
+            .comparing(TimelineItem::createdAt).thenComparingLong(TimelineItem::postId).reversed();
+
+    private final FollowRepository followRepository;
+    private final PetRepository petRepository;
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int capacity;
+    private final int celebrityThreshold;
+
+    // Owners that received entries since the last trim; lost on restart, they are marked again by their next fan-out
+    private final Set<String> ownersToTrim = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder fannedOutPosts = new LongAdder();
+    private final LongAdder fannedOutEntries = new LongAdder();
+    private final LongAdder celebrityPosts = new LongAdder();
+    private final LongAdder pageReads = new LongAdder();
+    private final LongAdder trimmedEntries = new LongAdder();
+
+    public TimelineService(FollowRepository followRepository,
+                           PetRepository petRepository,
+                           PostRepository postRepository,
+                           JdbcTemplate jdbcTemplate,
+                           ShardRouter shardRouter,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${pets.timeline.capacity:200}") int capacity,
+                           @Value("${pets.timeline.celebrity-threshold:10000}") int celebrityThreshold) {
+        this.followRepository = followRepository;
+        this.petRepository = petRepository;
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    public static String normalizeOwner(String ownerEmail) {
+        return ownerEmail.trim().toLowerCase();
+    }
+
+    // Adjusts the pet's follower count on its own shard with an atomic increment
+    public void adjustFollowerCount(Long petId, int delta) {
+        shardRouter.runOnShard(shardRouter.shardForId(petId), () -> jdbcTemplate.update(
+                "UPDATE pets SET follower_count = GREATEST(follower_count + ?, 0) WHERE id = ?", delta, petId));
+        entityManagerFactory.getCache().evict(Pet.class, petId);
+    }
+
+    public boolean isCelebrity(Pet pet) {
+        return pet.getFollowerCount() >= celebrityThreshold;
+    }
+
+    /**
+     * Pushes a READY post into the timeline of every follower of its pet. Runs
+     * on the ingestion worker, after the post is committed.
+     */
+    public void fanOut(Post post) {
+        Pet pet = post.getPet();
+        if (isCelebrity(pet)) {
+            celebrityPosts.increment();
+            return;
+        }
+        List<String> followers = shardRouter.scatter(() -> followRepository.findFollowerEmailsByPetId(pet.getId()));
+        if (followers.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<String>> followersByShard = followers.stream()
+                .map(TimelineService::normalizeOwner)
+                .distinct()
+                .collect(Collectors.groupingBy(shardRouter::shardForOwner));
+        followersByShard.forEach((shard, owners) -> {
+            shardRouter.runOnShard(shard, () -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO timeline_entries (owner_email, post_id, pet_id, created_at) VALUES (?, ?, ?, ?)",
+                    owners, owners.size(), (statement, owner) -> {
+                        statement.setString(1, owner);
+                        statement.setLong(2, post.getId());
+                        statement.setLong(3, pet.getId());
+                        statement.setTimestamp(4, Timestamp.valueOf(post.getCreatedAt()));
+                    }));
+            ownersToTrim.addAll(owners);
+            fannedOutEntries.add(owners.size());
+        });
+        fannedOutPosts.increment();
+    }
+
+    /**
+     * Returns up to {@code size} posts older than the cursor (null for the
+     * newest), newest first. Must run on the owner's shard.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by this service
+     */
+    public TimelinePage getTimeline(String ownerEmail, String cursor, int size) {
+        String owner = normalizeOwner(ownerEmail);
+        TimelineItem after = cursor == null ? null : TimelineItem.parse(cursor);
+
+        List<TimelineItem> candidates = fannedOutItems(owner, after, size);
+        List<TimelineItem> celebrities = celebrityItems(owner, after, size);
+        // Either source may hold more beyond its first size items
+        boolean more = candidates.size() == size || celebrities.size() == size;
+        candidates.addAll(celebrities);
+        candidates.sort(NEWEST_FIRST);
+        // A post fanned out before its pet crossed the celebrity threshold is also read as a celebrity post;
+        // list it once, before the page is cut
+        Set<Long> seen = new HashSet<>();
+        candidates.removeIf(item -> !seen.add(item.postId()));
+        List<TimelineItem> page = candidates.subList(0, Math.min(size, candidates.size()));
+
+        Map<Long, PostDTO> summaries = new HashMap<>();
+        shardRouter.groupIdsByShard(page.stream().map(TimelineItem::postId).toList()).forEach((shard, postIds) ->
+                shardRouter.onShard(shard, () -> postRepository.findSummariesWithLikesByIds(postIds))
+                        .forEach(summary -> summaries.put(summary.getId(), summary)));
+        List<PostDTO> posts = new ArrayList<>(page.size());
+        for (TimelineItem item : page) {
+            // Deleted posts stay in timelines until trimmed; they are skipped here
+            PostDTO summary = summaries.get(item.postId());
+            if (summary != null) {
+                posts.add(summary);
+            }
+        }
+        more |= candidates.size() > size;
+        String nextCursor = more && !page.isEmpty() ? page.get(page.size() - 1).toCursor() : null;
+        return new TimelinePage(posts, nextCursor);
+    }
+
+    // Drops the entries beyond capacity of each owner that received some, one owner-index range per owner
+    @Scheduled(initialDelayString = "${pets.timeline.trim-ms:60000}",
+            fixedDelayString = "${pets.timeline.trim-ms:60000}")
+    public void trim() {
+        Map<Integer, List<String>> ownersByShard = new HashMap<>();
+        for (Iterator<String> owners = ownersToTrim.iterator(); owners.hasNext(); ) {
+            String owner = owners.next();
+            owners.remove();
+            ownersByShard.computeIfAbsent(shardRouter.shardForOwner(owner), shard -> new ArrayList<>()).add(owner);
+        }
+        ownersByShard.forEach((shard, owners) -> shardRouter.runOnShard(shard, () -> {
+            for (int from = 0; from < owners.size(); from += TRIM_BATCH) {
+                List<String> batch = owners.subList(from, Math.min(owners.size(), from + TRIM_BATCH));
+                int[] deleted = jdbcTemplate.batchUpdate("DELETE FROM timeline_entries WHERE id IN (SELECT id FROM timeline_entries "
+                                + "WHERE owner_email = ? ORDER BY created_at DESC, post_id DESC OFFSET ? ROWS)",
+                        batch, batch.size(), (statement, owner) -> {
+                            statement.setString(1, owner);
+                            statement.setInt(2, capacity);
+                        })[0];
+                for (int count : deleted) {
+                    trimmedEntries.add(Math.max(count, 0));
+                }
+            }
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ownersToTrim", ownersToTrim.size());
+        stats.put("capacity", capacity);
+        stats.put("celebrityThreshold", celebrityThreshold);
+        stats.put("fannedOutPosts", fannedOutPosts.sum());
+        stats.put("fannedOutEntries", fannedOutEntries.sum());
+        stats.put("celebrityPosts", celebrityPosts.sum());
+        stats.put("pageReads", pageReads.sum());
+        stats.put("trimmedEntries", trimmedEntries.sum());
+        return stats;
+    }
+
+    // Helper methods
+    // Fanned-out entries older than the cursor, newest first, from the owner's index range
+    private List<TimelineItem> fannedOutItems(String owner, TimelineItem after, int size) {
+        pageReads.increment();
+        if (after == null) {
+            return jdbcTemplate.query("SELECT post_id, created_at FROM timeline_entries WHERE owner_email = ? "
+                            + "ORDER BY created_at DESC, post_id DESC LIMIT ?",
+                    TimelineService::mapItem, owner, size);
+        }
+        Timestamp before = Timestamp.valueOf(after.createdAt());
+        return jdbcTemplate.query("SELECT post_id, created_at FROM timeline_entries WHERE owner_email = ? "
+                        + "AND (created_at < ? OR (created_at = ? AND post_id < ?)) "
+                        + "ORDER BY created_at DESC, post_id DESC LIMIT ?",
+                TimelineService::mapItem, owner, before, before, after.postId(), size);
+    }
+
+    private static TimelineItem mapItem(ResultSet row, int rowNum) throws SQLException {
+        return new TimelineItem(row.getLong(1), row.getTimestamp(2).toLocalDateTime());
+    }
+
+    // Newest posts of followed celebrity pets, read from their shards
+    private List<TimelineItem> celebrityItems(String owner, TimelineItem after, int size) {
+        List<Long> followedPetIds = followRepository.findPetIdsByFollowerEmail(owner);
+        if (followedPetIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LocalDateTime before = after == null ? LocalDateTime.now().plusDays(1) : after.createdAt();
+        long beforeId = after == null ? Long.MAX_VALUE : after.postId();
+        List<TimelineItem> items = new ArrayList<>();
+        shardRouter.groupIdsByShard(followedPetIds).forEach((shard, petIds) -> shardRouter.runOnShard(shard, () -> {
+            List<Long> celebrities = petRepository.findAllById(petIds).stream()
+                    .filter(this::isCelebrity)
+                    .map(Pet::getId)
+                    .toList();
+            if (!celebrities.isEmpty()) {
+                for (Post post : postRepository.findByPetIdsOrderByCreatedAtDesc(celebrities, before, beforeId, PageRequest.of(0, size))) {
+                    items.add(new TimelineItem(post.getId(), post.getCreatedAt()));
+                }
+            }
+        }));
+        return items;
+    }
+
+    public record TimelinePage(List<PostDTO> posts, String nextCursor) {
+    }
+
+    private record TimelineItem(long postId, LocalDateTime createdAt) {
+
+        static TimelineItem parse(String cursor) {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            try {
+                return new TimelineItem(Long.parseLong(cursor.substring(separator + 1)),
+                        LocalDateTime.parse(cursor.substring(0, separator)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+
+        String toCursor() {
+            return createdAt + "_" + postId;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Trending ranking of posts by a time-decayed score, kept up to date
+ * incrementally instead of aggregating {@code post_likes} per request.
+ *
+ * Scores use forward decay: publishing a post and each like add
+ * {@code exp((t - landmark) / tau)}, so newer activity weighs more and old
+ * scores never need touching. The landmark is moved forward periodically and
+ * every score rescaled so the exponentials stay in range. Only the top
+ * {@code pets.trending.capacity} posts are tracked, in a skip list ordered by
+ * score that readers page through without locking; writers are serialized.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final Comparator<Ranked> BY_SCORE_DESC = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparing(Comparator.comparingLong(Ranked::postId).reversed());
+
+    private final PostRepository postRepository;
+    private final ShardRouter shardRouter;
+    private final double tauMs;
+    private final int capacity;
+    private final int seedDays;
+
+    // Guarded by lock; readers only use the volatile ranking snapshot
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Ranked> tracked = new HashMap<>();
+    private volatile Ranking ranking = new Ranking(System.currentTimeMillis(), new ConcurrentSkipListSet<>(BY_SCORE_DESC));
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rescales = new LongAdder();
+
+    public TrendingService(PostRepository postRepository,
+                           ShardRouter shardRouter,
+                           @Value("${pets.trending.half-life-hours:6}") double halfLifeHours,
+                           @Value("${pets.trending.capacity:1000}") int capacity,
+                           @Value("${pets.trending.seed-days:7}") int seedDays) {
+        this.postRepository = postRepository;
+        this.shardRouter = shardRouter;
+        this.tauMs = halfLifeHours * 3_600_000 / Math.log(2);
+        this.capacity = capacity;
+        this.seedDays = seedDays;
+    }
+
+    // Seeds the ranking once from recent posts; their existing likes count as given at publication
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<Object[]> rows = shardRouter.scatter(() -> postRepository.findTrendingSeed(LocalDateTime.now().minusDays(seedDays)));
+        lock.lock();
+        try {
+            for (Object[] row : rows) {
+                long createdAt = toMillis((LocalDateTime) row[1]);
+                int likes = ((Number) row[2]).intValue();
+                update((Long) row[0], likes, (1 + likes) * weight(createdAt));
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Trending ranking seeded with {} posts", tracked.size());
+    }
+
+    public void onPublished(Long postId, LocalDateTime createdAt) {
+        long created = toMillis(createdAt);
+        lock.lock();
+        try {
+            if (!tracked.containsKey(postId)) {
+                update(postId, 0, weight(created));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds (or, for an unlike, takes back) the weight of a like given now. A
+     * post that is not tracked yet enters scored like the seed does, with its
+     * earlier likes counted at publication, plus this like at now.
+     */
+    public void onLikeChanged(Long postId, LocalDateTime createdAt, int likeCount, boolean liked) {
+        long now = System.currentTimeMillis();
+        long created = toMillis(createdAt);
+        lock.lock();
+        try {
+            Ranked current = tracked.get(postId);
+            double score;
+            if (current == null) {
+                int earlierLikes = liked ? likeCount - 1 : likeCount;
+                score = (1 + earlierLikes) * weight(created) + (liked ? weight(now) : 0);
+            } else if (liked) {
+                score = current.score() + weight(now);
+            } else {
+                // Never below the publication weight, even if the like being undone was older
+                score = Math.max(weight(created), current.score() - weight(now));
+            }
+            update(postId, likeCount, score);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.lock();
+        try {
+            Ranked current = tracked.remove(postId);
+            if (current != null) {
+                ranking.ranked().remove(current);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code size} posts after the cursor (null for the first page).
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by this service
+     */
+    public TrendingPage getPage(String cursor, int size) {
+        Ranking snapshot = ranking;
+        NavigableSet<Ranked> view = snapshot.ranked();
+        long afterPostId = -1;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            double logScore = Double.parseDouble(cursor.substring(0, separator));
+            afterPostId = Long.parseLong(cursor.substring(separator + 1));
+            view = view.tailSet(new Ranked(afterPostId, 0, Math.exp(logScore - snapshot.landmark() / tauMs)), false);
+        }
+        List<Ranked> posts = new ArrayList<>(size);
+        for (Ranked ranked : view) {
+            if (posts.size() == size) {
+                break;
+            }
+            // The cursor's score is rebuilt from its log form and may round; never repeat its post
+            if (ranked.postId() != afterPostId) {
+                posts.add(ranked);
+            }
+        }
+        String nextCursor = null;
+        if (posts.size() == size) {
+            Ranked last = posts.get(posts.size() - 1);
+            nextCursor = (Math.log(last.score()) + snapshot.landmark() / tauMs) + ":" + last.postId();
+        }
+        return new TrendingPage(posts, nextCursor);
+    }
+
+    // Moves the landmark to now so that new weights stay close to 1
+    @Scheduled(initialDelayString = "${pets.trending.rescale-ms:3600000}",
+            fixedDelayString = "${pets.trending.rescale-ms:3600000}")
+    public void rescale() {
+        lock.lock();
+        try {
+            Ranking current = ranking;
+            long landmark = System.currentTimeMillis();
+            double factor = Math.exp((current.landmark() - landmark) / tauMs);
+            NavigableSet<Ranked> rescaled = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+            for (Ranked ranked : current.ranked()) {
+                Ranked next = ranked.withScore(ranked.score() * factor);
+                rescaled.add(next);
+                tracked.put(next.postId(), next);
+            }
+            ranking = new Ranking(landmark, rescaled);
+            rescales.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("tracked", tracked.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("capacity", capacity);
+        stats.put("updates", updates.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("rescales", rescales.sum());
+        return stats;
+    }
+
+    // Helper methods
+    // Caller holds the lock
+    private void update(Long postId, int likeCount, double score) {
+        NavigableSet<Ranked> ranked = ranking.ranked();
+        Ranked previous = tracked.get(postId);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+        Ranked next = new Ranked(postId, likeCount, score);
+        ranked.add(next);
+        tracked.put(postId, next);
+        updates.increment();
+        while (tracked.size() > capacity) {
+            Ranked lowest = ranked.pollLast();
+            tracked.remove(lowest.postId());
+            evictions.increment();
+        }
+    }
+
+    private double weight(long timestamp) {
+        return Math.exp((timestamp - ranking.landmark()) / tauMs);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record Ranked(long postId, int likeCount, double score) {
+
+        Ranked withScore(double newScore) {
+            return new Ranked(postId, likeCount, newScore);
+        }
+    }
+
+    public record TrendingPage(List<Ranked> posts, String nextCursor) {
+    }
+
+    private record Ranking(long landmark, NavigableSet<Ranked> ranked) {
+    }
+}
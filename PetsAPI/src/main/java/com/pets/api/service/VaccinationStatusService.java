@@ -0,0 +1,67 @@
+package com.pets.api.service;
+
+import com.pets.api.config.ShardRouter;
+import com.pets.api.model.Vaccination;
+import com.pets.api.repository.VaccinationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves the persisted vaccination status forward as days pass. Writes set the
+ * status themselves; this refresh only touches the rows that crossed a
+ * threshold since it last ran (the next dose entered the due-soon window or
+ * passed), found by a range on the (status, next_due_date) index, so its cost
+ * follows the day's transitions rather than the size of the table. It runs
+ * right after midnight and once at startup to catch up on missed days.
+ */
+@Service
+public class VaccinationStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(VaccinationStatusService.class);
+
+    private final VaccinationRepository vaccinationRepository;
+    private final ShardRouter shardRouter;
+
+    private final LongAdder becameOverdue = new LongAdder();
+    private final LongAdder becameDueSoon = new LongAdder();
+    private final AtomicReference<LocalDateTime> lastRefresh = new AtomicReference<>();
+
+    public VaccinationStatusService(VaccinationRepository vaccinationRepository, ShardRouter shardRouter) {
+        this.vaccinationRepository = vaccinationRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${pets.vaccinations.status-refresh-cron:0 1 0 * * *}")
+    public void refresh() {
+        LocalDate today = LocalDate.now();
+        long[] counts = new long[2];
+        shardRouter.forEachShard(() -> {
+            counts[0] += vaccinationRepository.markOverdue(today);
+            counts[1] += vaccinationRepository.markDueSoon(today, today.plusDays(Vaccination.DUE_SOON_DAYS));
+        });
+        becameOverdue.add(counts[0]);
+        becameDueSoon.add(counts[1]);
+        lastRefresh.set(LocalDateTime.now());
+        log.info("Vaccination status refreshed: {} became overdue and {} due soon", counts[0], counts[1]);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("becameOverdue", becameOverdue.sum());
+        stats.put("becameDueSoon", becameDueSoon.sum());
+        stats.put("lastRefresh", lastRefresh.get());
+        return stats;
+    }
+}
@@ -0,0 +1,186 @@
+package com.pets.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pets.api.dto.CalendarEntryDTO;
+import com.pets.api.dto.WidgetPetDTO;
+import com.pets.api.model.Event;
+import com.pets.api.model.Pet;
+import com.pets.api.model.Vaccination;
+import com.pets.api.repository.EventRepository;
+import com.pets.api.repository.PetRepository;
+import com.pets.api.repository.VaccinationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-owner snapshots of the home screen widget payload: each pet's name,
+ * icon and next due event occurrence or vaccination.
+ *
+ * The payload is serialized once and kept with a strong ETag derived from its
+ * bytes, so widget refreshes are a map lookup and, when the device already has
+ * the payload, a bodiless 304. Writes to an owner's pets, events or
+ * vaccinations drop the snapshot and the next read rebuilds it; snapshots also
+ * expire at midnight because "next" and "overdue" depend on the date. A
+ * rebuild that produces the same bytes keeps the same ETag.
+ *
+ * Each owner's map slot is also its version: an invalidation replaces the
+ * slot, and a rebuild is only kept if the slot it read before loading is
+ * still there, so writes by one owner never discard another owner's rebuild.
+ * Invalidation only reaches this instance, so snapshots also expire after
+ * {@code pets.widget.ttl-seconds}; writes made through another instance show
+ * up within that time.
+ */
+@Service
+public class WidgetSnapshotService {
+
+    private static final LocalDate END_OF_TIME = LocalDate.of(9999, 12, 31);
+
+    private final PetRepository petRepository;
+    private final EventRepository eventRepository;
+    private final VaccinationRepository vaccinationRepository;
+    private final ReadCoalescer readCoalescer;
+    private final ObjectMapper objectMapper;
+    private final int maxCachedOwners;
+    private final long ttlNanos;
+
+    private final Map<String, Slot> snapshots = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public WidgetSnapshotService(PetRepository petRepository,
+                                 EventRepository eventRepository,
+                                 VaccinationRepository vaccinationRepository,
+                                 ReadCoalescer readCoalescer,
+                                 ObjectMapper objectMapper,
+                                 @Value("${pets.widget.max-cached-owners:10000}") int maxCachedOwners,
+                                 @Value("${pets.widget.ttl-seconds:60}") long ttlSeconds) {
+        this.petRepository = petRepository;
+        this.eventRepository = eventRepository;
+        this.vaccinationRepository = vaccinationRepository;
+        this.readCoalescer = readCoalescer;
+        this.objectMapper = objectMapper;
+        this.maxCachedOwners = maxCachedOwners;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    // Must run on the owner's shard
+    public Snapshot getSnapshot(String ownerEmail) {
+        LocalDate today = LocalDate.now();
+        Slot slot = snapshots.get(ownerEmail);
+        if (slot != null && slot.isFresh(today)) {
+            hits.increment();
+            return slot.snapshot();
+        }
+        // The slot is read by the build itself, so a caller joining a build that started
+        // before an invalidation does not store its result as current
+        Build built = readCoalescer.load("widget", ownerEmail,
+                () -> new Build(snapshots.get(ownerEmail), build(ownerEmail, today)));
+        Snapshot rebuilt = built.snapshot();
+        if (snapshots.size() >= maxCachedOwners && !snapshots.containsKey(ownerEmail)) {
+            // Any evicted snapshot is simply rebuilt on its next read
+            Iterator<String> owners = snapshots.keySet().iterator();
+            if (owners.hasNext()) {
+                snapshots.remove(owners.next());
+            }
+        }
+        Slot fresh = new Slot(rebuilt, System.nanoTime() + ttlNanos);
+        snapshots.compute(ownerEmail, (owner, current) -> current == built.slot() ? fresh : current);
+        return rebuilt;
+    }
+
+    // Called after the write to the owner's pets, events or vaccinations has committed
+    public void invalidate(String ownerEmail) {
+        // A new empty slot, so rebuilds that read the previous one are not kept
+        Slot previous = snapshots.put(ownerEmail, new Slot(null, 0));
+        if (previous != null && previous.snapshot() != null) {
+            invalidations.increment();
+        }
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedOwners", snapshots.size());
+        stats.put("hits", hits.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("notModified", notModified.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    // Helper methods
+    private Snapshot build(String ownerEmail, LocalDate today) {
+        Map<Long, WidgetPetDTO> pets = new LinkedHashMap<>();
+        List<Pet> ownerPets = new ArrayList<>(petRepository.findByOwnerEmail(ownerEmail));
+        // Oldest pet first, and a stable order so that identical data gives identical bytes
+        ownerPets.sort(Comparator.comparing(Pet::getId));
+        for (Pet pet : ownerPets) {
+            pets.put(pet.getId(), new WidgetPetDTO(pet.getId(), pet.getName(), pet.getSpecies().getIcon()));
+        }
+        for (Event event : eventRepository.findOverlappingByOwner(ownerEmail, today, END_OF_TIME)) {
+            WidgetPetDTO pet = pets.get(event.getPet().getId());
+            LocalDate next = event.nextOccurrenceOnOrAfter(today);
+            if (pet != null && next != null) {
+                offer(pet, CalendarEntryDTO.TYPE_EVENT, event.getTitle(), next, false);
+            }
+        }
+        for (Vaccination vaccination : vaccinationRepository.findByOwnerEmailOrderByNextDueDateAsc(ownerEmail)) {
+            WidgetPetDTO pet = pets.get(vaccination.getPet().getId());
+            if (pet != null) {
+                offer(pet, CalendarEntryDTO.TYPE_VACCINATION, vaccination.getName(),
+                        vaccination.getNextDueDate(), vaccination.isOverdue());
+            }
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pets.values());
+            rebuilds.increment();
+            return new Snapshot(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"", today);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el widget", e);
+        }
+    }
+
+    // Keeps the earliest due item per pet; ties go to the item offered first
+    private static void offer(WidgetPetDTO pet, String type, String title, LocalDate date, boolean overdue) {
+        if (pet.getNextDate() == null || date.isBefore(pet.getNextDate())) {
+            pet.setNextType(type);
+            pet.setNextTitle(title);
+            pet.setNextDate(date);
+            pet.setNextOverdue(overdue);
+        }
+    }
+
+    public record Snapshot(byte[] json, String etag, LocalDate builtFor) {
+    }
+
+    // An owner's snapshot, or none after an invalidation; replaced, never mutated
+    private record Slot(Snapshot snapshot, long expiresAt) {
+
+        boolean isFresh(LocalDate today) {
+            return snapshot != null && snapshot.builtFor().equals(today) && expiresAt - System.nanoTime() > 0;
+        }
+    }
+
+    // A snapshot with the owner's slot read before its data
+    private record Build(Slot slot, Snapshot snapshot) {
+    }
+}